@@ -18,25 +18,63 @@ package org.openrewrite.checkstyle;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpServer;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
 import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
 import io.micrometer.prometheus.PrometheusConfig;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import io.micrometer.prometheus.rsocket.PrometheusRSocketClient;
+import io.prometheus.client.exporter.common.TextFormat;
 import io.rsocket.transport.netty.client.TcpClientTransport;
-import org.openrewrite.Change;
-import org.openrewrite.Refactor;
+import org.openrewrite.Parser;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.tree.J;
 import org.slf4j.LoggerFactory;
 import reactor.netty.tcp.TcpClient;
 import reactor.util.retry.Retry;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
@@ -47,7 +85,7 @@ public class Main {
     }
 
     public static void main(String[] args) throws ParseException, IOException {
-        PrometheusRSocketClient metricsClient = null;
+        MetricsExporter metricsExporter = null;
 
         try {
             CommandLineParser parser = new DefaultParser();
@@ -56,16 +94,28 @@ public class Main {
             options.addOption("c", "config", true, "Checkstyle configuration XML");
             options.addOption("l", "limit", true, "Limit number of files processed");
             options.addOption("r", "regex", true, "Glob filter");
-            options.addOption("m", "metrics", false, "Publish metrics");
+            options.addOption(Option.builder("m")
+                    .longOpt("metrics")
+                    .hasArg()
+                    .optionalArg(true)
+                    .argName("exporter")
+                    .desc("Publish metrics with one of: file:<path> (OpenMetrics text written at exit, the default), " +
+                            "snapshot:<path>[:<seconds>] (periodically rewritten), http:<port> (serves /metrics), " +
+                            "rsocket:<host>:<port> (pushed to a Prometheus RSocket proxy)")
+                    .build());
+            options.addOption("t", "threads", true, "Number of threads that parse and fix sources, defaults to the number of processors");
+            options.addOption(Option.builder()
+                    .longOpt("fused")
+                    .desc("Run all checks in a single traversal of each source file")
+                    .build());
+            options.addOption("o", "report", true, "Run report file (JSON Lines), defaults to checkstyle-report.jsonl");
 
             CommandLine line = parser.parse(options, args);
 
             if (line.hasOption("m")) {
                 PrometheusMeterRegistry prometheusMeterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
-                metricsClient = PrometheusRSocketClient
-                        .build(prometheusMeterRegistry, TcpClientTransport.create(TcpClient.create().host("localhost").port(7001)))
-                        .retry(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(10)).maxBackoff(Duration.ofMinutes(10)))
-                        .connect();
+                metricsExporter = MetricsExporter.fromSpec(line.getOptionValue("m", "file:checkstyle-metrics.txt"),
+                        prometheusMeterRegistry);
 
                 Metrics.globalRegistry.add(prometheusMeterRegistry);
 
@@ -73,62 +123,712 @@ public class Main {
                 new ProcessorMetrics().bindTo(Metrics.globalRegistry);
             }
 
-            RewriteCheckstyle rewriteCheckstyle;
+            byte[] config;
 
             if (line.hasOption("f")) {
-                try (InputStream is = new FileInputStream(new File(line.getOptionValue("f")))) {
-                    rewriteCheckstyle = new RewriteCheckstyle(is);
-                }
+                config = Files.readAllBytes(Path.of(line.getOptionValue("f")));
             } else if (line.hasOption("c")) {
-                try (InputStream is = new ByteArrayInputStream(line.getOptionValue("c").getBytes(Charsets.UTF_8))) {
-                    rewriteCheckstyle = new RewriteCheckstyle(is);
-                }
+                config = line.getOptionValue("c").getBytes(Charsets.UTF_8);
             } else {
                 throw new IllegalArgumentException("Supply either a config XML file via -f or an inline config via -c");
             }
 
+            // fail on an invalid configuration before any source is read
+            loadCheckstyle(config);
+
+            // visitors hold state while visiting a tree, so each thread that fixes sources gets its own copies,
+            // which share the state that spans the whole run
+            boolean fused = line.hasOption("fused");
+            FieldReferenceIndex fieldReferenceIndex = new FieldReferenceIndex();
+            SupertypeMemberCache supertypeMemberCache = new SupertypeMemberCache();
+            ThreadLocal<LexicalTriggers> checks = ThreadLocal.withInitial(() ->
+                    LexicalTriggers.compile(shareRunState(loadCheckstyle(config).getVisitors(), fieldReferenceIndex,
+                            supertypeMemberCache)));
+
             PathMatcher pathMatcher = line.hasOption("r") ?
                     FileSystems.getDefault().getPathMatcher("glob:" + line.getOptionValue("r")) :
                     null;
 
-            List<Path> sourcePaths = Files.walk(Path.of(""))
-                    .filter(p -> p.toFile().getName().endsWith(".java"))
-                    .filter(p -> pathMatcher == null || pathMatcher.matches(p))
-                    .limit(Integer.parseInt(line.getOptionValue("l", "2147483647")))
-                    .collect(toList());
-
-            sourcePaths.stream()
-                    .flatMap(javaSource -> {
-                        try {
-                            return new JavaParser()
-                                    .setLogCompilationWarningsAndErrors(false)
-                                    .parse(singletonList(javaSource), Path.of("").toAbsolutePath())
-                                    .stream();
-                        } catch (Throwable t) {
-                            try {
-                                Files.writeString(Path.of("errors-parsing.log"), javaSource.toString(), StandardOpenOption.APPEND);
-                            } catch (IOException ignored) {
-                            }
-                            return Stream.empty();
+            int parallelism = Integer.parseInt(line.getOptionValue("t",
+                    Integer.toString(Runtime.getRuntime().availableProcessors())));
+
+            ExecutorService ioExecutor = newIoExecutor();
+            ExecutorService cpuExecutor = Executors.newFixedThreadPool(parallelism, daemonThreads("checkstyle-fix"));
+
+            try (RunReport report = new RunReport(Path.of(line.getOptionValue("o", "checkstyle-report.jsonl")))) {
+                List<Path> sourcePaths = CompletableFuture.supplyAsync(() -> {
+                    try (Stream<Path> walk = Files.walk(Path.of(""))) {
+                        return walk
+                                .filter(p -> p.toFile().getName().endsWith(".java"))
+                                .filter(p -> pathMatcher == null || pathMatcher.matches(p))
+                                .limit(Integer.parseInt(line.getOptionValue("l", "2147483647")))
+                                .collect(toList());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, ioExecutor).join();
+
+                // bounds the number of sources that have been read but not yet written, so reads can't run
+                // arbitrarily far ahead of the parse and fix pool
+                Semaphore inFlight = new Semaphore(parallelism * 4);
+                List<CompletableFuture<Void>> pending = new ArrayList<>(sourcePaths.size());
+                Queue<Path> unparsed = new ConcurrentLinkedQueue<>();
+
+                for (Path javaSource : sourcePaths) {
+                    inFlight.acquireUninterruptibly();
+                    pending.add(CompletableFuture
+                            .supplyAsync(() -> read(javaSource, report), ioExecutor)
+                            .thenApplyAsync(source -> {
+                                if (source == null) {
+                                    return null;
+                                }
+                                try {
+                                    return check(javaSource, source, checks.get(), fused, fieldReferenceIndex,
+                                            unparsed, report);
+                                } finally {
+                                    source.release();
+                                }
+                            }, cpuExecutor)
+                            .thenAcceptAsync(checked -> {
+                                if (checked != null) {
+                                    checked.forEach(c -> write(c, report));
+                                }
+                            }, ioExecutor)
+                            .whenComplete((ignored, t) -> inFlight.release()));
+                }
+
+                CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+
+                renameReferences(fieldReferenceIndex, unparsed, report);
+            } finally {
+                cpuExecutor.shutdown();
+                ioExecutor.shutdown();
+            }
+        } finally {
+            if (metricsExporter != null) {
+                metricsExporter.close();
+            }
+        }
+    }
+
+    private static RewriteCheckstyle loadCheckstyle(byte[] config) {
+        try (InputStream is = new ByteArrayInputStream(config)) {
+            return new RewriteCheckstyle(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <V extends Collection<? extends CheckstyleRefactorVisitor>> V shareRunState(
+            V visitors, FieldReferenceIndex fieldReferenceIndex, SupertypeMemberCache supertypeMemberCache) {
+        for (CheckstyleRefactorVisitor visitor : visitors) {
+            if (visitor instanceof StaticVariableName) {
+                ((StaticVariableName) visitor).setFieldReferenceIndex(fieldReferenceIndex);
+            } else if (visitor instanceof HiddenField) {
+                ((HiddenField) visitor).setSupertypeMemberCache(supertypeMemberCache);
+            }
+        }
+        return visitors;
+    }
+
+    @Nullable
+    private static SourceText read(Path javaSource, RunReport report) {
+        try {
+            return SourceText.read(javaSource);
+        } catch (IOException e) {
+            report.record(javaSource, "read-error", emptyList(), 0, 0, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static List<CheckedSource> check(Path javaSource, SourceText source, LexicalTriggers checks, boolean fused,
+                                             FieldReferenceIndex fieldReferenceIndex, Queue<Path> unparsed,
+                                             RunReport report) {
+        List<CheckstyleRefactorVisitor> applicable = checks.applicableTo(source.asciiCompatibleBytes());
+        if (applicable.isEmpty()) {
+            // no configured check could possibly change this file, so don't bother parsing it
+            report.record(javaSource, "skipped", emptyList(), 0, 0, null);
+            unparsed.add(javaSource);
+            return null;
+        }
+
+        long parseStart = System.nanoTime();
+        List<J.CompilationUnit> cus = parse(javaSource, source, report);
+        if (cus == null) {
+            return null;
+        }
+        long parseNanos = System.nanoTime() - parseStart;
+
+        for (J.CompilationUnit cu : cus) {
+            fieldReferenceIndex.add(cu);
+        }
+
+        List<CheckedSource> checked = new ArrayList<>(cus.size());
+        for (J.CompilationUnit cu : cus) {
+            long fixStart = System.nanoTime();
+            try {
+                CheckstyleRefactor.Result fixed = new CheckstyleRefactor(applicable, fused).fix(cu);
+                long fixNanos = System.nanoTime() - fixStart;
+                Collection<String> rulesThatMadeChanges = fixed.getRulesThatMadeChanges();
+
+                if (rulesThatMadeChanges.isEmpty()) {
+                    report.record(javaSource, "unchanged", emptyList(), parseNanos, fixNanos, null);
+                } else {
+                    checked.add(new CheckedSource(javaSource, new File(cu.getSourcePath()).toPath(), source.text,
+                            source.charset, source.byteOrderMark, fixed.getFixed().print(),
+                            rulesThatMadeChanges, parseNanos, fixNanos));
+                }
+            } catch (Throwable t) {
+                report.record(javaSource, "fix-error", emptyList(), parseNanos, System.nanoTime() - fixStart, t);
+            }
+        }
+        return checked;
+    }
+
+    @Nullable
+    private static List<J.CompilationUnit> parse(Path javaSource, SourceText source, RunReport report) {
+        long parseStart = System.nanoTime();
+        try {
+            return new JavaParser()
+                    .setLogCompilationWarningsAndErrors(false)
+                    .parseInputs(singletonList(new Parser.Input(javaSource, source::newUtf8InputStream)),
+                            Path.of("").toAbsolutePath());
+        } catch (Throwable t) {
+            report.record(javaSource, "parse-error", emptyList(), System.nanoTime() - parseStart, 0, t);
+            return null;
+        }
+    }
+
+    /**
+     * Once every file has been fixed, renames the references to the fields that checks renamed in the files that
+     * declare them, in one more pass over only the files that refer to one of the renamed fields. Files that no check
+     * applied to weren't parsed, and so weren't indexed, and are parsed now only if they mention a renamed field.
+     */
+    private static void renameReferences(FieldReferenceIndex fieldReferenceIndex, Collection<Path> unparsed,
+                                         RunReport report) {
+        if (!fieldReferenceIndex.hasRenames()) {
+            return;
+        }
+
+        Set<Path> referencing = new LinkedHashSet<>();
+        for (String sourcePath : fieldReferenceIndex.getFilesReferringToRenamedFields()) {
+            referencing.add(Path.of(sourcePath));
+        }
+        Set<String> renamedFieldNames = fieldReferenceIndex.getRenamedFieldNames();
+
+        for (Path javaSource : unparsed) {
+            referencing.add(javaSource);
+        }
+
+        for (Path javaSource : referencing) {
+            SourceText source = read(javaSource, report);
+            if (source == null) {
+                continue;
+            }
+
+            try {
+                if (renamedFieldNames.stream().noneMatch(source.text::contains)) {
+                    continue;
+                }
+
+                long parseStart = System.nanoTime();
+                List<J.CompilationUnit> cus = parse(javaSource, source, report);
+                if (cus == null) {
+                    continue;
+                }
+                long parseNanos = System.nanoTime() - parseStart;
+
+                long fixStart = System.nanoTime();
+                for (J.CompilationUnit cu : cus) {
+                    // indexes the files that weren't parsed before, and is a no-op for those that were
+                    fieldReferenceIndex.add(cu);
+                }
+                for (J.CompilationUnit renamed : fieldReferenceIndex.renameReferences(cus)) {
+                    write(new CheckedSource(javaSource, new File(renamed.getSourcePath()).toPath(), source.text,
+                            source.charset, source.byteOrderMark, renamed.print(), singleton("StaticVariableName"),
+                            parseNanos, System.nanoTime() - fixStart), report);
+                }
+            } finally {
+                source.release();
+            }
+        }
+    }
+
+    private static void write(CheckedSource checked, RunReport report) {
+        if (checked.fixed.equals(checked.original)) {
+            // rules reported changes that print back to exactly the same source
+            report.record(checked.sourcePath, "unchanged", emptyList(), checked.parseNanos, checked.fixNanos, null);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(checked.destination, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // written back in the charset it was read in, keeping any byte order mark it had
+            if (checked.byteOrderMark.length > 0) {
+                writeFully(channel, ByteBuffer.wrap(checked.byteOrderMark));
+            }
+            writeFully(channel, checked.charset.newEncoder().encode(CharBuffer.wrap(checked.fixed)));
+            report.record(checked.sourcePath, "fixed", checked.rulesThatMadeChanges, checked.parseNanos, checked.fixNanos, null);
+        } catch (IOException e) {
+            report.record(checked.sourcePath, "write-error", checked.rulesThatMadeChanges, checked.parseNanos, checked.fixNanos, e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Blocking reads and writes run on virtual threads when the JVM has them (Java 21+), so they
+     * never occupy the bounded pool that parses and fixes. On older JVMs they fall back to a cached
+     * pool of platform threads.
+     */
+    static ExecutorService newIoExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(daemonThreads("checkstyle-io"));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class CheckedSource {
+        private final Path sourcePath;
+        private final Path destination;
+        private final String original;
+        private final Charset charset;
+        private final byte[] byteOrderMark;
+        private final String fixed;
+        private final Collection<String> rulesThatMadeChanges;
+        private final long parseNanos;
+        private final long fixNanos;
+
+        private CheckedSource(Path sourcePath, Path destination, String original, Charset charset, byte[] byteOrderMark,
+                              String fixed, Collection<String> rulesThatMadeChanges, long parseNanos, long fixNanos) {
+            this.sourcePath = sourcePath;
+            this.destination = destination;
+            this.original = original;
+            this.charset = charset;
+            this.byteOrderMark = byteOrderMark;
+            this.fixed = fixed;
+            this.rulesThatMadeChanges = rulesThatMadeChanges;
+            this.parseNanos = parseNanos;
+            this.fixNanos = fixNanos;
+        }
+    }
+
+    /**
+     * The contents of a source file, read through a {@link FileChannel} into a pooled direct buffer (or mapped,
+     * when the file is large) and decoded exactly once, in the charset indicated by its byte order mark or
+     * otherwise as UTF-8, falling back to ISO-8859-1 when the file isn't valid UTF-8.
+     */
+    static class SourceText {
+        private static final int POOLED_BUFFER_SIZE = 1024 * 1024;
+        private static final Queue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+
+        private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        private static final byte[] UTF_16BE_BOM = {(byte) 0xFE, (byte) 0xFF};
+        private static final byte[] UTF_16LE_BOM = {(byte) 0xFF, (byte) 0xFE};
+
+        /**
+         * The raw contents, positioned after any byte order mark.
+         */
+        private final ByteBuffer bytes;
+
+        @Nullable
+        private final ByteBuffer pooled;
+
+        private final Charset charset;
+        private final byte[] byteOrderMark;
+        private final String text;
+
+        private SourceText(ByteBuffer bytes, @Nullable ByteBuffer pooled) throws CharacterCodingException {
+            this.pooled = pooled;
+            this.bytes = bytes;
+
+            if (startsWith(bytes, UTF_8_BOM)) {
+                this.byteOrderMark = UTF_8_BOM;
+                this.charset = StandardCharsets.UTF_8;
+            } else if (startsWith(bytes, UTF_16BE_BOM)) {
+                this.byteOrderMark = UTF_16BE_BOM;
+                this.charset = StandardCharsets.UTF_16BE;
+            } else if (startsWith(bytes, UTF_16LE_BOM)) {
+                this.byteOrderMark = UTF_16LE_BOM;
+                this.charset = StandardCharsets.UTF_16LE;
+            } else {
+                this.byteOrderMark = new byte[0];
+                String utf8 = decodeOrNull(bytes, StandardCharsets.UTF_8);
+                if (utf8 == null) {
+                    // every byte sequence is valid ISO-8859-1, and it round trips unchanged on write
+                    this.charset = StandardCharsets.ISO_8859_1;
+                    this.text = StandardCharsets.ISO_8859_1.decode(bytes.duplicate()).toString();
+                } else {
+                    this.charset = StandardCharsets.UTF_8;
+                    this.text = utf8;
+                }
+                return;
+            }
+
+            bytes.position(bytes.position() + byteOrderMark.length);
+            this.text = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(bytes.duplicate())
+                    .toString();
+        }
+
+        static SourceText read(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > POOLED_BUFFER_SIZE) {
+                    return new SourceText(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), null);
+                }
+
+                ByteBuffer buffer = bufferPool.poll();
+                if (buffer == null) {
+                    buffer = ByteBuffer.allocateDirect(POOLED_BUFFER_SIZE);
+                }
+                buffer.clear();
+                try {
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // keep reading until the file is exhausted
+                    }
+                    buffer.flip();
+                    return new SourceText(buffer, buffer);
+                } catch (IOException | RuntimeException e) {
+                    bufferPool.offer(buffer);
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * @return The raw contents, suitable for matching ASCII lexical triggers against.
+         */
+        ByteBuffer asciiCompatibleBytes() {
+            return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset) ?
+                    bytes : StandardCharsets.UTF_8.encode(text);
+        }
+
+        /**
+         * @return The contents as UTF-8, which is what the parser expects. For UTF-8 sources, this streams
+         * straight out of the buffer the file was read into.
+         */
+        InputStream newUtf8InputStream() {
+            return new ByteBufferInputStream(StandardCharsets.UTF_8.equals(charset) ?
+                    bytes.duplicate() : StandardCharsets.UTF_8.encode(text));
+        }
+
+        /**
+         * Return the buffer this source was read into to the pool once the source has been parsed.
+         */
+        void release() {
+            if (pooled != null) {
+                bufferPool.offer(pooled);
+            }
+        }
+
+        private static boolean startsWith(ByteBuffer bytes, byte[] prefix) {
+            if (bytes.remaining() < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (bytes.get(bytes.position() + i) != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Nullable
+        private static String decodeOrNull(ByteBuffer bytes, Charset charset) {
+            try {
+                return charset.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(bytes.duplicate())
+                        .toString();
+            } catch (CharacterCodingException e) {
+                return null;
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer bytes;
+
+        private ByteBufferInputStream(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() {
+            return bytes.hasRemaining() ? bytes.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!bytes.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, bytes.remaining());
+            bytes.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return bytes.remaining();
+        }
+    }
+
+    /**
+     * A JSON Lines report of a run, with one record per source file. All records go through
+     * one buffered writer, so concurrently processed files don't contend on the report file.
+     */
+    static class RunReport implements Closeable {
+        private final Writer writer;
+
+        RunReport(Path reportPath) throws IOException {
+            this.writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8);
+        }
+
+        synchronized void record(Path sourcePath, String status, Collection<String> rulesThatMadeChanges,
+                                 long parseNanos, long fixNanos, @Nullable Throwable t) {
+            StringBuilder json = new StringBuilder(256)
+                    .append("{\"path\":").append(quote(sourcePath.toString()))
+                    .append(",\"status\":").append(quote(status))
+                    .append(",\"rules\":[");
+
+            int i = 0;
+            for (String rule : rulesThatMadeChanges) {
+                if (i++ > 0) {
+                    json.append(',');
+                }
+                json.append(quote(rule));
+            }
+
+            json.append("],\"parseMs\":").append(parseNanos / 1_000_000.0)
+                    .append(",\"fixMs\":").append(fixNanos / 1_000_000.0);
+
+            if (t != null) {
+                json.append(",\"exception\":").append(quote(t.getClass().getName()));
+                if (t.getMessage() != null) {
+                    json.append(",\"message\":").append(quote(t.getMessage()));
+                }
+            }
+
+            json.append("}\n");
+
+            try {
+                writer.write(json.toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String quote(String value) {
+            StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        quoted.append("\\\"");
+                        break;
+                    case '\\':
+                        quoted.append("\\\\");
+                        break;
+                    case '\n':
+                        quoted.append("\\n");
+                        break;
+                    case '\r':
+                        quoted.append("\\r");
+                        break;
+                    case '\t':
+                        quoted.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            quoted.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            quoted.append(c);
                         }
-                    })
-                    .forEach(cu -> {
-                        Refactor<J.CompilationUnit, J> refactor = rewriteCheckstyle.apply(cu.refactor());
-
-                        Change<J.CompilationUnit> fixed = refactor.fix();
-                        if (!fixed.getRulesThatMadeChanges().isEmpty()) {
-                            fixed.getRulesThatMadeChanges().forEach(rule -> System.out.println("  " + rule));
-                            try {
-                                Files.writeString(new File(cu.getSourcePath()).toPath(), fixed.getFixed().print());
-                            } catch (IOException e) {
-                                throw new UncheckedIOException(e);
-                            }
+                }
+            }
+            return quoted.append('"').toString();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Makes the metrics of a run available somewhere once it is over, or while it is in progress.
+     */
+    interface MetricsExporter extends Closeable {
+        static MetricsExporter fromSpec(String spec, PrometheusMeterRegistry registry) throws IOException {
+            String[] kindAndTarget = spec.split(":", 2);
+            if (kindAndTarget.length < 2 || kindAndTarget[1].isEmpty()) {
+                throw new IllegalArgumentException("Metrics exporter must be given as <kind>:<target>, found '" + spec + "'");
+            }
+
+            String target = kindAndTarget[1];
+            switch (kindAndTarget[0]) {
+                case "file":
+                    return new OpenMetricsFileExporter(registry, Path.of(target));
+                case "snapshot": {
+                    int interval = target.lastIndexOf(':');
+                    String seconds = target.substring(interval + 1);
+                    if (interval > 0 && seconds.chars().allMatch(Character::isDigit)) {
+                        // an empty or zero interval is a mistake rather than part of the path, and the exporter
+                        // schedules snapshots in milliseconds, which an interval of more digits would overflow
+                        long period = seconds.isEmpty() || seconds.length() > 18 ? 0 : Long.parseLong(seconds);
+                        if (period <= 0 || period > Long.MAX_VALUE / 1000) {
+                            throw new IllegalArgumentException("Snapshot metrics exporter must be given as " +
+                                    "snapshot:<path>[:<seconds>] with a positive number of seconds no greater than " +
+                                    Long.MAX_VALUE / 1000 + ", found '" + spec + "'");
                         }
-                    });
-        } finally {
-            if (metricsClient != null) {
-                metricsClient.pushAndClose().block(Duration.ofSeconds(10));
+                        return new SnapshotFileExporter(registry, Path.of(target.substring(0, interval)),
+                                Duration.ofSeconds(period));
+                    }
+                    return new SnapshotFileExporter(registry, Path.of(target), Duration.ofSeconds(30));
+                }
+                case "http":
+                    return new HttpEndpointExporter(registry, Integer.parseInt(target));
+                case "rsocket": {
+                    int port = target.lastIndexOf(':');
+                    if (port <= 0) {
+                        throw new IllegalArgumentException("RSocket metrics exporter must be given as rsocket:<host>:<port>");
+                    }
+                    return new RSocketExporter(registry, target.substring(0, port), Integer.parseInt(target.substring(port + 1)));
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown metrics exporter '" + kindAndTarget[0] + "'");
+            }
+        }
+
+        /**
+         * Write the current state of the registry in OpenMetrics text format, replacing the destination
+         * atomically so that a reader never sees a partially written file.
+         */
+        static void writeOpenMetrics(PrometheusMeterRegistry registry, Path destination) throws IOException {
+            Path absoluteDestination = destination.toAbsolutePath();
+            Path temp = Files.createTempFile(absoluteDestination.getParent(), absoluteDestination.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temp, registry.scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100));
+                Files.move(temp, absoluteDestination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Writes all metrics to a file in OpenMetrics text format when the run is over.
+     */
+    static class OpenMetricsFileExporter implements MetricsExporter {
+        private final PrometheusMeterRegistry registry;
+        private final Path destination;
+
+        OpenMetricsFileExporter(PrometheusMeterRegistry registry, Path destination) {
+            this.registry = registry;
+            this.destination = destination;
+        }
+
+        @Override
+        public void close() throws IOException {
+            MetricsExporter.writeOpenMetrics(registry, destination);
+        }
+    }
+
+    /**
+     * Rewrites a snapshot of all metrics to a file periodically while the run is in progress, and once more at the end.
+     */
+    static class SnapshotFileExporter implements MetricsExporter {
+        private final PrometheusMeterRegistry registry;
+        private final Path destination;
+        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        SnapshotFileExporter(PrometheusMeterRegistry registry, Path destination, Duration interval) {
+            this.registry = registry;
+            this.destination = destination;
+            scheduler.scheduleAtFixedRate(this::snapshot, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void snapshot() {
+            try {
+                MetricsExporter.writeOpenMetrics(registry, destination);
+            } catch (IOException e) {
+                LoggerFactory.getLogger(SnapshotFileExporter.class).warn("Unable to write metrics snapshot to {}", destination, e);
             }
         }
+
+        @Override
+        public void close() throws IOException {
+            scheduler.shutdownNow();
+            MetricsExporter.writeOpenMetrics(registry, destination);
+        }
+    }
+
+    /**
+     * Serves all metrics in OpenMetrics text format on /metrics for the duration of the run.
+     */
+    static class HttpEndpointExporter implements MetricsExporter {
+        private final HttpServer server;
+
+        HttpEndpointExporter(PrometheusMeterRegistry registry, int port) throws IOException {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+            server.createContext("/metrics", exchange -> {
+                byte[] body = registry.scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            });
+            server.start();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Pushes metrics to a Prometheus RSocket proxy. Connection attempts are bounded, so a missing proxy
+     * doesn't hold up the run or its shutdown.
+     */
+    static class RSocketExporter implements MetricsExporter {
+        private final PrometheusRSocketClient client;
+
+        RSocketExporter(PrometheusMeterRegistry registry, String host, int port) {
+            this.client = PrometheusRSocketClient
+                    .build(registry, TcpClientTransport.create(TcpClient.create().host(host).port(port)))
+                    .retry(Retry.backoff(5, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(10)))
+                    .connect();
+        }
+
+        @Override
+        public void close() {
+            client.pushAndClose().block(Duration.ofSeconds(10));
+        }
     }
 }
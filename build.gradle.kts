@@ -31,6 +31,7 @@ plugins {
     id("org.jetbrains.kotlin.jvm") version "1.4.21"
     id("io.spring.release") version "0.20.1"
     id("com.github.jk1.dependency-license-report") version "1.16"
+    id("me.champeau.gradle.jmh") version "0.5.3"
 }
 
 apply(plugin = "license")
@@ -81,6 +82,8 @@ dependencies {
     testImplementation("org.openrewrite:rewrite-test:latest.integration")
 
     testImplementation("org.assertj:assertj-core:latest.release")
+
+    jmh("org.openrewrite:rewrite-java-11:latest.integration")
 }
 
 tasks.withType(KotlinCompile::class.java).configureEach {
@@ -103,6 +106,11 @@ tasks.named<JavaCompile>("compileJava") {
     options.compilerArgs.addAll(listOf("--release", "8"))
 }
 
+configure<me.champeau.gradle.JMHPluginExtension> {
+    jmhVersion = "1.27"
+    duplicateClassesStrategy = DuplicatesStrategy.EXCLUDE
+}
+
 configure<ContactsExtension> {
     val j = Contact("jkschneider@gmail.com")
     j.moniker("Jonathan Schneider")
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Sources and check configurations shared by the benchmarks.
+ */
+final class BenchmarkSources {
+    private static final List<Supplier<CheckstyleRefactorVisitor>> ALL_CHECKS = Arrays.asList(
+            CovariantEquals::new,
+            DefaultComesLast::new,
+            EmptyBlock::new,
+            EmptyForInitializerPad::new,
+            EmptyForIteratorPad::new,
+            EmptyStatement::new,
+            EqualsAvoidsNull::new,
+            ExplicitInitialization::new,
+            FallThrough::new,
+            FinalClass::new,
+            FinalLocalVariable::new,
+            GenericWhitespace::new,
+            HiddenField::new,
+            HideUtilityClassConstructor::new,
+            LeftCurly::new,
+            MethodParamPad::new,
+            MultipleVariableDeclarations::new,
+            NeedBraces::new,
+            NoFinalizer::new,
+            NoWhitespaceAfter::new,
+            NoWhitespaceBefore::new,
+            OperatorWrap::new,
+            RightCurly::new,
+            SimplifyBooleanExpression::new,
+            SimplifyBooleanReturn::new,
+            StaticVariableName::new,
+            StringLiteralEquality::new,
+            TypecastParenPad::new,
+            UnnecessaryParentheses::new
+    );
+
+    private BenchmarkSources() {
+    }
+
+    /**
+     * @return A fresh instance of every check, each configured with its defaults.
+     */
+    static List<CheckstyleRefactorVisitor> allChecks() {
+        List<CheckstyleRefactorVisitor> checks = ALL_CHECKS.stream().map(Supplier::get).collect(toList());
+        String config = "<?xml version=\"1.0\"?>\n" +
+                "<!DOCTYPE module PUBLIC\n" +
+                "    \"-//Checkstyle//DTD Checkstyle Configuration 1.3//EN\"\n" +
+                "    \"https://checkstyle.org/dtds/configuration_1_3.dtd\">\n" +
+                "<module name=\"Checker\">\n" +
+                "    <module name=\"TreeWalker\">\n" +
+                checks.stream()
+                        .map(check -> "        <module name=\"" + check.getClass().getSimpleName() + "\"/>\n")
+                        .collect(joining()) +
+                "    </module>\n" +
+                "</module>";
+        checks.forEach(check -> check.setConfig(config));
+        return checks;
+    }
+
+    /**
+     * @param classes The number of classes to generate, which controls the size of the source file.
+     * @return A compilation unit with a mix of the constructs that the checks look at, some of them
+     * violating checks and some not.
+     */
+    static J.CompilationUnit compilationUnit(int classes) {
+        StringBuilder source = new StringBuilder("import java.util.*;\n\n");
+        for (int i = 0; i < classes; i++) {
+            source.append("class A").append(i).append(" {\n")
+                    .append("    private static int COUNT = 0;\n")
+                    .append("    private int n = 0;\n")
+                    .append("    private String s;\n")
+                    .append("\n")
+                    .append("    public A").append(i).append("(int n) {\n")
+                    .append("        this.n = n;\n")
+                    .append("    }\n")
+                    .append("\n")
+                    .append("    public boolean test(int n, List<String> list) {\n")
+                    .append("        int total = 0;\n")
+                    .append("        for (int j = 0; j < n; j++) {\n")
+                    .append("            if (s == \"test\" || (s.equals(\"other\") && true)) total += j;\n")
+                    .append("        }\n")
+                    .append("        switch (n) {\n")
+                    .append("            default:\n")
+                    .append("                total++;\n")
+                    .append("            case 1:\n")
+                    .append("                total--;\n")
+                    .append("            case 2: {\n")
+                    .append("                break;\n")
+                    .append("            }\n")
+                    .append("        }\n")
+                    .append("        for (String item : list) ;\n")
+                    .append("        while (total > 10) { total = (total) / 2; }\n")
+                    .append("        if (total == 0) {\n")
+                    .append("            return true;\n")
+                    .append("        } else {\n")
+                    .append("            return false;\n")
+                    .append("        }\n")
+                    .append("    }\n")
+                    .append("}\n\n");
+        }
+
+        return JavaParser.fromJavaVersion()
+                .logCompilationWarningsAndErrors(false)
+                .build()
+                .parse(source.toString())
+                .get(0);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.java.tree.J;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares running every check in its own traversal of a compilation unit with running them all in one
+ * {@link FusedCheckstyleVisitor} traversal. The {@code nodesVisited} counter reports how many nodes
+ * each mode visits over an iteration, which divided by the number of operations gives the nodes visited
+ * per compilation unit.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class FusedTraversalBenchmark {
+    @Param({"1", "10"})
+    int classes;
+
+    J.CompilationUnit cu;
+    List<CheckstyleRefactorVisitor> separately;
+    FusedCheckstyleVisitor fused;
+
+    @Setup
+    public void setup() {
+        cu = BenchmarkSources.compilationUnit(classes);
+        separately = BenchmarkSources.allChecks();
+        fused = new FusedCheckstyleVisitor(BenchmarkSources.allChecks());
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class NodesVisited {
+        public long nodesVisited;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodesVisited = 0;
+        }
+    }
+
+    @Benchmark
+    public J separately(NodesVisited counter) {
+        J t = cu;
+        for (CheckstyleRefactorVisitor check : separately) {
+            long before = check.getNodesVisited();
+            t = check.visit(t);
+            counter.nodesVisited += check.getNodesVisited() - before;
+            check.next();
+        }
+        return t;
+    }
+
+    @Benchmark
+    public J fused(NodesVisited counter) {
+        long before = fused.getNodesVisited();
+        J t = fused.visit(cu);
+        counter.nodesVisited += fused.getNodesVisited() - before;
+        fused.next();
+        return t;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AbstractJavaSourceVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares checks that find the parents of the nodes they look at with a cursor against checks that share
+ * a {@link ParentIndex}. Each of {@code checks} visitors counts the variables declared directly in a class
+ * body, which takes looking two levels up from every variable. Run with {@code -prof gc} to compare the
+ * bytes allocated per operation.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ParentIndexBenchmark {
+    @Param({"1", "10"})
+    int classes;
+
+    @Param({"4"})
+    int checks;
+
+    J.CompilationUnit cu;
+
+    @Setup
+    public void setup() {
+        cu = BenchmarkSources.compilationUnit(classes);
+    }
+
+    @Benchmark
+    public int cursors() {
+        int fields = 0;
+        for (int i = 0; i < checks; i++) {
+            fields += new CountFieldsWithCursor().visit(cu);
+        }
+        return fields;
+    }
+
+    @Benchmark
+    public int parentIndex() {
+        ParentIndex parentIndex = new ParentIndex();
+        parentIndex.index(cu);
+
+        int fields = 0;
+        for (int i = 0; i < checks; i++) {
+            fields += new CountFieldsWithParentIndex(parentIndex).visit(cu);
+        }
+        return fields;
+    }
+
+    private abstract static class CountFields extends AbstractJavaSourceVisitor<Integer> {
+        @Override
+        public Integer defaultTo(@Nullable Tree t) {
+            return 0;
+        }
+
+        @Override
+        public Integer reduce(Integer r1, Integer r2) {
+            return r1 + r2;
+        }
+    }
+
+    private static class CountFieldsWithCursor extends CountFields {
+        CountFieldsWithCursor() {
+            setCursoringOn();
+        }
+
+        @Override
+        public Integer visitVariable(J.VariableDecls.NamedVar variable) {
+            Tree maybeClassDecl = getCursor()
+                    .getParentOrThrow() // J.VariableDecls
+                    .getParentOrThrow() // J.Block
+                    .getParentOrThrow() // maybe J.ClassDecl
+                    .getTree();
+            return (maybeClassDecl instanceof J.ClassDecl ? 1 : 0) + super.visitVariable(variable);
+        }
+    }
+
+    private static class CountFieldsWithParentIndex extends CountFields {
+        private final ParentIndex parentIndex;
+
+        CountFieldsWithParentIndex(ParentIndex parentIndex) {
+            this.parentIndex = parentIndex;
+        }
+
+        @Override
+        public Integer visitVariable(J.VariableDecls.NamedVar variable) {
+            Tree block = parentIndex.getParentOrThrow(parentIndex.getParentOrThrow(variable));
+            Tree maybeClassDecl = parentIndex.getParentOrThrow(block);
+            return (maybeClassDecl instanceof J.ClassDecl ? 1 : 0) + super.visitVariable(variable);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openjdk.jmh.annotations.*;
+import org.openrewrite.Tree;
+import org.openrewrite.checkstyle.policy.OperatorToken;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AbstractJavaSourceVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.openrewrite.checkstyle.policy.OperatorToken.*;
+
+/**
+ * Compares matching the binary operators of a compilation unit against a configured set of
+ * {@link OperatorToken}s with a chain of instanceof tests over a {@link HashSet}, as {@link OperatorWrap}
+ * used to, against one lookup of the operator's token followed by a test of an {@link EnumSet}.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TokenDispatchBenchmark {
+    @Param({"1", "10"})
+    int classes;
+
+    List<J.Binary.Operator> operators;
+
+    Set<OperatorToken> hashSetTokens;
+
+    Set<OperatorToken> enumSetTokens;
+
+    @Setup
+    public void setup() {
+        operators = new CollectOperators().visit(BenchmarkSources.compilationUnit(classes));
+        hashSetTokens = new HashSet<>(Arrays.asList(OperatorToken.values()));
+        enumSetTokens = EnumSet.allOf(OperatorToken.class);
+    }
+
+    @Benchmark
+    public int instanceofChain() {
+        int matched = 0;
+        for (J.Binary.Operator op : operators) {
+            Set<OperatorToken> tokens = hashSetTokens;
+            if ((tokens.contains(DIV) && op instanceof J.Binary.Operator.Division) ||
+                    (tokens.contains(STAR) && op instanceof J.Binary.Operator.Multiplication) ||
+                    (tokens.contains(PLUS) && op instanceof J.Binary.Operator.Addition) ||
+                    (tokens.contains(MINUS) && op instanceof J.Binary.Operator.Subtraction) ||
+                    (tokens.contains(MOD) && op instanceof J.Binary.Operator.Modulo) ||
+                    (tokens.contains(SR) && op instanceof J.Binary.Operator.RightShift) ||
+                    (tokens.contains(SL) && op instanceof J.Binary.Operator.LeftShift) ||
+                    (tokens.contains(BSR) && op instanceof J.Binary.Operator.UnsignedRightShift) ||
+                    (tokens.contains(EQUAL) && op instanceof J.Binary.Operator.Equal) ||
+                    (tokens.contains(NOT_EQUAL) && op instanceof J.Binary.Operator.NotEqual) ||
+                    (tokens.contains(GT) && op instanceof J.Binary.Operator.GreaterThan) ||
+                    (tokens.contains(GE) && op instanceof J.Binary.Operator.GreaterThanOrEqual) ||
+                    (tokens.contains(LT) && op instanceof J.Binary.Operator.LessThan) ||
+                    (tokens.contains(LE) && op instanceof J.Binary.Operator.LessThanOrEqual) ||
+                    (tokens.contains(BAND) && op instanceof J.Binary.Operator.BitAnd) ||
+                    (tokens.contains(BXOR) && op instanceof J.Binary.Operator.BitXor) ||
+                    (tokens.contains(BOR) && op instanceof J.Binary.Operator.BitOr) ||
+                    (tokens.contains(LAND) && op instanceof J.Binary.Operator.And) ||
+                    (tokens.contains(LOR) && op instanceof J.Binary.Operator.Or)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int lookupTable() {
+        int matched = 0;
+        for (J.Binary.Operator op : operators) {
+            if (enumSetTokens.contains(OperatorToken.of(op))) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static class CollectOperators extends AbstractJavaSourceVisitor<List<J.Binary.Operator>> {
+        @Override
+        public List<J.Binary.Operator> defaultTo(@Nullable Tree t) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<J.Binary.Operator> reduce(List<J.Binary.Operator> r1, List<J.Binary.Operator> r2) {
+            r1.addAll(r2);
+            return r1;
+        }
+
+        @Override
+        public List<J.Binary.Operator> visitBinary(J.Binary binary) {
+            List<J.Binary.Operator> operators = super.visitBinary(binary);
+            operators.add(binary.getOperator());
+            return operators;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.openrewrite.RefactorVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.*;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Fixes a compilation unit with a set of checks, running them in the order given by the {@link RulePlanner}
+ * round after round until a round makes no further change.
+ * <p>
+ * Convergence is controlled per compilation unit. No more than a fixed number of rounds are run, and the
+ * printed source is fingerprinted after every round that changes the tree, so that checks that undo each other's fixes are
+ * detected when a round produces a source seen in an earlier round, rather than running until the round
+ * limit is reached. The rounds in which each check made changes are counted, so that source files that take
+ * many rounds can be traced back to the checks responsible.
+ * <p>
+ * Each round starts by taking a {@link NodeKindCensus} of the compilation unit. Checks that consume none of
+ * the kinds of node present are skipped for the round, and the checks that run skip subtrees that contain
+ * none of the kinds they consume.
+ */
+public class CheckstyleRefactor {
+    private static final DistributionSummary rounds = DistributionSummary.builder("rewrite.checkstyle.rounds")
+            .description("The number of rounds of checks that a source file needed before no check had anything left to fix")
+            .register(Metrics.globalRegistry);
+
+    private static final Counter oscillations = Counter.builder("rewrite.checkstyle.oscillations")
+            .description("Source files on which checks undid each other's fixes")
+            .register(Metrics.globalRegistry);
+
+    private static final Counter roundLimitReached = Counter.builder("rewrite.checkstyle.round.limit")
+            .description("Source files that still had something to fix after the maximum number of rounds")
+            .register(Metrics.globalRegistry);
+
+    private final List<CheckstyleRefactorVisitor> checks;
+    private final boolean fused;
+    private int maxRounds = 10;
+
+    public CheckstyleRefactor(Collection<? extends CheckstyleRefactorVisitor> checks) {
+        this(checks, false);
+    }
+
+    /**
+     * @param checks The checks to fix with.
+     * @param fused  Whether to run all checks in one traversal of the compilation unit per round with a
+     *               {@link FusedCheckstyleVisitor} rather than one traversal per check.
+     */
+    public CheckstyleRefactor(Collection<? extends CheckstyleRefactorVisitor> checks, boolean fused) {
+        this.checks = RulePlanner.plan(checks);
+        this.fused = fused;
+        if (!fused) {
+            ParentIndex parentIndex = new ParentIndex();
+            LineMap lineMap = new LineMap();
+            SwitchModels switchModels = new SwitchModels();
+            ClassSummaries classSummaries = new ClassSummaries();
+            for (CheckstyleRefactorVisitor check : this.checks) {
+                check.fuseInto(null);
+                check.shareParentIndex(parentIndex);
+                check.shareLineMap(lineMap);
+                check.shareSwitchModels(switchModels);
+                check.shareClassSummaries(classSummaries);
+            }
+        }
+    }
+
+    public CheckstyleRefactor setMaxRounds(int maxRounds) {
+        this.maxRounds = maxRounds;
+        return this;
+    }
+
+    public List<CheckstyleRefactorVisitor> getChecks() {
+        return checks;
+    }
+
+    public Result fix(J.CompilationUnit cu) {
+        List<CheckstyleRefactorVisitor> idempotent = new ArrayList<>(checks.size());
+        for (CheckstyleRefactorVisitor check : checks) {
+            if (check.isIdempotent()) {
+                idempotent.add(check);
+            }
+        }
+
+        Set<String> rulesThatMadeChanges = new LinkedHashSet<>();
+        Map<String, Integer> roundsByRule = new LinkedHashMap<>();
+        List<Set<String>> changesByRound = new ArrayList<>();
+        Set<String> oscillatingRules = emptySet();
+
+        // the source is only printed once a round has changed the tree, so files with nothing to fix aren't printed
+        Map<Long, Integer> roundByFingerprint = new HashMap<>();
+        long fingerprint = 0;
+
+        J.CompilationUnit fixed = cu;
+        int round = 0;
+
+        while (true) {
+            if (round == maxRounds) {
+                roundLimitReached.increment();
+                break;
+            }
+            round++;
+
+            J.CompilationUnit before = fixed;
+            Set<String> changedThisRound = new LinkedHashSet<>();
+
+            // checks that aren't idempotent would fix their own fixes again, so they only run in the first round
+            List<CheckstyleRefactorVisitor> roundChecks = round == 1 ? checks : idempotent;
+            NodeKindCensus census = NodeKindCensus.take(fixed, roundChecks);
+
+            try {
+                if (fused) {
+                    // in one traversal, a check sees the nodes that the checks planned before it produce
+                    List<CheckstyleRefactorVisitor> present = new ArrayList<>(roundChecks.size());
+                    for (CheckstyleRefactorVisitor check : roundChecks) {
+                        if (census.isPresent(census.maskOf(check.getConsumedKinds()))) {
+                            present.add(check);
+                            census.produced(check.getProducedKinds());
+                        }
+                    }
+
+                    FusedCheckstyleVisitor fusedVisitor = new FusedCheckstyleVisitor(present);
+                    fusedVisitor.useCensus(census);
+                    fixed = visit(fusedVisitor, fixed);
+                    changedThisRound.addAll(fusedVisitor.getRulesThatMadeChanges());
+                } else {
+                    for (CheckstyleRefactorVisitor check : roundChecks) {
+                        if (!census.isPresent(census.maskOf(check.getConsumedKinds()))) {
+                            continue;
+                        }
+
+                        check.useCensus(census);
+                        J.CompilationUnit after = visit(check, fixed);
+                        if (after != fixed) {
+                            changedThisRound.add(check.getClass().getSimpleName());
+                            census.produced(check.getProducedKinds());
+                        }
+                        fixed = after;
+                    }
+                }
+            } finally {
+                for (CheckstyleRefactorVisitor check : roundChecks) {
+                    check.useCensus(null);
+                }
+            }
+
+            if (fixed == before) {
+                break;
+            }
+
+            if (roundByFingerprint.isEmpty()) {
+                fingerprint = fingerprint(cu);
+                roundByFingerprint.put(fingerprint, 0);
+            }
+
+            long previousFingerprint = fingerprint;
+            fingerprint = fingerprint(fixed);
+            if (fingerprint == previousFingerprint) {
+                // checks rebuilt parts of the tree without changing the source they print
+                fixed = before;
+                break;
+            }
+
+            changesByRound.add(changedThisRound);
+            rulesThatMadeChanges.addAll(changedThisRound);
+            for (String rule : changedThisRound) {
+                roundsByRule.merge(rule, 1, Integer::sum);
+                Metrics.counter("rewrite.checkstyle.rule.rounds", "rule", rule).increment();
+            }
+
+            Integer seenInRound = roundByFingerprint.putIfAbsent(fingerprint, round);
+            if (seenInRound != null) {
+                // every round since then has just undone and redone the same fixes
+                oscillatingRules = new LinkedHashSet<>();
+                for (int r = seenInRound; r < round; r++) {
+                    oscillatingRules.addAll(changesByRound.get(r));
+                }
+                oscillations.increment();
+                break;
+            }
+        }
+
+        rounds.record(round);
+        return new Result(fixed, round, rulesThatMadeChanges, roundsByRule, oscillatingRules);
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of the printed source.
+     */
+    static long fingerprint(J.CompilationUnit cu) {
+        String printed = cu.print();
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < printed.length(); i++) {
+            hash ^= printed.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Visit the compilation unit, and then with every visitor the visitor queued along the way.
+     */
+    private static J.CompilationUnit visit(RefactorVisitor<J> visitor, J.CompilationUnit cu) {
+        J.CompilationUnit fixed = (J.CompilationUnit) visitor.visit(cu);
+        List<RefactorVisitor<J>> andThen = new ArrayList<>(visitor.andThen());
+        visitor.next();
+        for (RefactorVisitor<J> then : andThen) {
+            fixed = visit(then, fixed);
+        }
+        return fixed;
+    }
+
+    public static class Result {
+        private final J.CompilationUnit fixed;
+        private final int rounds;
+        private final Set<String> rulesThatMadeChanges;
+        private final Map<String, Integer> roundsByRule;
+        private final Set<String> oscillatingRules;
+
+        Result(J.CompilationUnit fixed, int rounds, Set<String> rulesThatMadeChanges,
+               Map<String, Integer> roundsByRule, Set<String> oscillatingRules) {
+            this.fixed = fixed;
+            this.rounds = rounds;
+            this.rulesThatMadeChanges = rulesThatMadeChanges;
+            this.roundsByRule = roundsByRule;
+            this.oscillatingRules = oscillatingRules;
+        }
+
+        public J.CompilationUnit getFixed() {
+            return fixed;
+        }
+
+        /**
+         * @return The number of rounds run, including the last round, which made no change unless the
+         * round limit was reached or the checks oscillated.
+         */
+        public int getRounds() {
+            return rounds;
+        }
+
+        /**
+         * @return The simple names of the checks that made changes.
+         */
+        public Set<String> getRulesThatMadeChanges() {
+            return rulesThatMadeChanges;
+        }
+
+        /**
+         * @return For each check that made changes, the number of rounds in which it did.
+         */
+        public Map<String, Integer> getRoundsByRule() {
+            return roundsByRule;
+        }
+
+        /**
+         * @return The checks that kept undoing each other's fixes, which is empty unless fixing stopped
+         * because the source returned to what it was after an earlier round.
+         */
+        public Set<String> getOscillatingRules() {
+            return oscillatingRules;
+        }
+    }
+}
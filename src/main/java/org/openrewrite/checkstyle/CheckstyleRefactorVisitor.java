@@ -18,6 +18,8 @@ package org.openrewrite.checkstyle;
 import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
 import com.puppycrawl.tools.checkstyle.api.*;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionsLoader;
+import org.openrewrite.Cursor;
+import org.openrewrite.Tree;
 import org.openrewrite.Validated;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaRefactorVisitor;
@@ -34,9 +36,9 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.Arrays.stream;
+import static java.util.Collections.emptySet;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
-import static java.util.stream.Collectors.toSet;
 
 public abstract class CheckstyleRefactorVisitor extends JavaRefactorVisitor {
     // we just want to re-use the suppression filtering logic in Checkstyle without emitting messages
@@ -58,12 +60,166 @@ public abstract class CheckstyleRefactorVisitor extends JavaRefactorVisitor {
     private Map<String, Object> properties;
     private FilterSet suppressions = new FilterSet();
 
+    /**
+     * Set while this check runs as one of the checks of a {@link FusedCheckstyleVisitor}, which
+     * then owns the traversal and the cursor.
+     */
+    @Nullable
+    private FusedCheckstyleVisitor fusedInto;
+
+    private long nodesVisited;
+
+    /**
+     * Set while this check runs as part of a {@link CheckstyleRefactor}, to skip subtrees that contain
+     * none of the kinds of node this check consumes.
+     */
+    @Nullable
+    private NodeKindCensus census;
+
+    private long consumedMask = NodeKindCensus.ANY;
+
+    private ParentIndex parentIndex = new ParentIndex();
+
+    private LineMap lineMap = new LineMap();
+
+    private SwitchModels switchModels = new SwitchModels();
+
+    private ClassSummaries classSummaries = new ClassSummaries();
+
+    @Nullable
+    private StructuralEdits edits;
+
+    private final StructuralEquality structuralEquality = new StructuralEquality();
+
+    @Override
+    public J visit(@Nullable Tree tree) {
+        if (fusedInto != null) {
+            // the fused visitor has already visited this node's children with every check
+            return (J) tree;
+        }
+        if (census != null && !census.mayContain(tree, consumedMask)) {
+            return (J) tree;
+        }
+        if (tree != null) {
+            nodesVisited++;
+        }
+        return super.visit(tree);
+    }
+
+    @Override
+    public Cursor getCursor() {
+        return fusedInto == null ? super.getCursor() : fusedInto.getCursor();
+    }
+
     @Override
     public J visitCompilationUnit(J.CompilationUnit cu) {
-        if (suppressions.accept(new AuditEvent("does not matter", cu.getSourcePath().toString(), localizedMessageThatDoesntMatter))) {
-            return super.visitCompilationUnit(cu);
+        if (isSuppressed(cu)) {
+            return cu;
+        }
+        if (fusedInto == null) {
+            // when fused, the fused visitor has indexed the compilation unit before it was changed
+            parentIndex.index(cu);
+            lineMap.index(cu);
+            switchModels.index(cu);
+            classSummaries.index(cu);
+        }
+        structuralEquality.clear();
+        return super.visitCompilationUnit(cu);
+    }
+
+    boolean isSuppressed(J.CompilationUnit cu) {
+        return !suppressions.accept(new AuditEvent("does not matter", cu.getSourcePath().toString(), localizedMessageThatDoesntMatter));
+    }
+
+    void fuseInto(@Nullable FusedCheckstyleVisitor fused) {
+        this.fusedInto = fused;
+    }
+
+    /**
+     * @return The parents of the nodes of the compilation unit being visited, as they were before this visit.
+     */
+    protected ParentIndex getParentIndex() {
+        return parentIndex;
+    }
+
+    /**
+     * @return The lines that the nodes of the compilation unit being visited start and end on, as they were
+     * before this visit.
+     */
+    protected LineMap getLineMap() {
+        return lineMap;
+    }
+
+    /**
+     * @return Structural equality of expressions, remembering the hashes of the nodes of the compilation unit
+     * being visited.
+     */
+    protected StructuralEquality getStructuralEquality() {
+        return structuralEquality;
+    }
+
+    /**
+     * @return The default case, case groups, and comments of the switch, shared with the other checks that
+     * visit it.
+     */
+    protected SwitchModel getSwitchModel(J.Switch switzh) {
+        return switchModels.of(switzh);
+    }
+
+    /**
+     * @return The constructors, fields, and finalizer of the class, shared with the other checks that visit it.
+     */
+    protected ClassSummary getClassSummary(J.ClassDecl classDecl) {
+        return classSummaries.of(classDecl);
+    }
+
+    /**
+     * @return The edits to apply together once this traversal is done, in place of queueing a visitor per edit.
+     */
+    protected StructuralEdits edits() {
+        if (fusedInto != null) {
+            return fusedInto.edits();
+        }
+        if (edits == null) {
+            edits = new StructuralEdits();
+            andThen(edits);
         }
-        return cu;
+        return edits;
+    }
+
+    @Override
+    public void next() {
+        edits = null;
+        super.next();
+    }
+
+    void shareParentIndex(ParentIndex parentIndex) {
+        this.parentIndex = parentIndex;
+    }
+
+    void shareLineMap(LineMap lineMap) {
+        this.lineMap = lineMap;
+    }
+
+    void shareSwitchModels(SwitchModels switchModels) {
+        this.switchModels = switchModels;
+    }
+
+    void shareClassSummaries(ClassSummaries classSummaries) {
+        this.classSummaries = classSummaries;
+    }
+
+    void useCensus(@Nullable NodeKindCensus census) {
+        this.census = census;
+        this.consumedMask = census == null ? NodeKindCensus.ANY : census.maskOf(getConsumedKinds());
+    }
+
+    /**
+     * @return The number of nodes this check has visited on its own, excluding those visited on its
+     * behalf by a {@link FusedCheckstyleVisitor}.
+     */
+    long getNodesVisited() {
+        return nodesVisited;
     }
 
     public void setConfig(String config) {
@@ -88,6 +244,40 @@ public abstract class CheckstyleRefactorVisitor extends JavaRefactorVisitor {
     protected void configure(Module m) {
     }
 
+    /**
+     * Keywords or punctuation, at least one of which must appear somewhere in the raw text of a source file
+     * for this check to have anything to fix in it. See {@link LexicalTriggers}.
+     *
+     * @return The triggers for this check. When empty, the check may apply to any source file.
+     */
+    public Set<String> getLexicalTriggers() {
+        return emptySet();
+    }
+
+    /**
+     * Kinds of node this check looks at to decide whether there is something to fix. See {@link RulePlanner}.
+     *
+     * @return The consumed kinds. When empty, the check may look at any kind of node.
+     */
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return emptySet();
+    }
+
+    /**
+     * Kinds of node this check adds to a tree, or whose children it rearranges, when it makes a fix.
+     * Checks that consume these kinds are best run after this one. See {@link RulePlanner}.
+     *
+     * @return The produced kinds.
+     */
+    public Set<Class<? extends J>> getProducedKinds() {
+        return emptySet();
+    }
+
+    @SafeVarargs
+    protected static Set<Class<? extends J>> kinds(Class<? extends J>... kinds) {
+        return new HashSet<>(Arrays.asList(kinds));
+    }
+
     @Override
     public final Validated validate() {
         try {
@@ -218,19 +408,23 @@ public abstract class CheckstyleRefactorVisitor extends JavaRefactorVisitor {
             return defaultValue;
         }
 
+        /**
+         * @return The configured tokens, or the default tokens, as an {@link EnumSet} so that checking whether
+         * a token is configured is a bit test rather than a hash lookup.
+         */
         public <T extends Enum<T>> Set<T> propAsTokens(Class<T> enumType, Set<T> defaultValue) {
-            return properties.containsKey("tokens") ?
-                    stream(properties.get("tokens").split("\\s*,\\s*"))
-                            .map(token -> {
-                                try {
-                                    return Enum.valueOf(enumType, token);
-                                } catch (Throwable t) {
-                                    return null;
-                                }
-                            })
-                            .filter(Objects::nonNull)
-                            .collect(toSet()) :
-                    defaultValue;
+            Set<T> tokens = EnumSet.noneOf(enumType);
+            if (properties.containsKey("tokens")) {
+                for (String token : properties.get("tokens").split("\\s*,\\s*")) {
+                    try {
+                        tokens.add(Enum.valueOf(enumType, token));
+                    } catch (Throwable ignored) {
+                    }
+                }
+            } else {
+                tokens.addAll(defaultValue);
+            }
+            return tokens;
         }
 
         public <T> T propAsOptionValue(Function<String, T> valueOf, T defaultValue) {
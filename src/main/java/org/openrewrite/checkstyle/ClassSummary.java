@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * What the checks that fix the shape of a class need to know about its members: its constructors and their
+ * visibility, whether its other members are all static methods, its finalizer, and its fields. Built in one pass
+ * over the class body by {@link ClassSummaries} and shared by the checks that visit the class.
+ */
+public class ClassSummary {
+    private final List<J.MethodDecl> constructors;
+    private final boolean nonPrivateConstructor;
+    private final boolean onlyConstructorsAndStaticMethods;
+    private final List<J.VariableDecls.NamedVar> fields;
+
+    @Nullable
+    private final J.MethodDecl finalizer;
+
+    ClassSummary(J.ClassDecl classDecl) {
+        List<J.MethodDecl> constructors = emptyList();
+        boolean nonPrivateConstructor = false;
+        boolean onlyConstructorsAndStaticMethods = true;
+        List<J.VariableDecls.NamedVar> fields = emptyList();
+        J.MethodDecl finalizer = null;
+
+        for (J statement : classDecl.getBody().getStatements()) {
+            if (statement instanceof J.MethodDecl) {
+                J.MethodDecl method = (J.MethodDecl) statement;
+                if (method.isConstructor()) {
+                    if (constructors.isEmpty()) {
+                        constructors = new ArrayList<>(1);
+                    }
+                    constructors.add(method);
+                    nonPrivateConstructor |= !method.hasModifier("private");
+                } else {
+                    onlyConstructorsAndStaticMethods &= method.hasModifier("static");
+                    if (finalizer == null && isFinalizer(method)) {
+                        finalizer = method;
+                    }
+                }
+                continue;
+            }
+
+            onlyConstructorsAndStaticMethods = false;
+            if (statement instanceof J.VariableDecls) {
+                if (fields.isEmpty()) {
+                    fields = new ArrayList<>();
+                }
+                fields.addAll(((J.VariableDecls) statement).getVars());
+            }
+        }
+
+        this.constructors = constructors;
+        this.nonPrivateConstructor = nonPrivateConstructor;
+        this.onlyConstructorsAndStaticMethods = onlyConstructorsAndStaticMethods;
+        this.fields = fields;
+        this.finalizer = finalizer;
+    }
+
+    public List<J.MethodDecl> getConstructors() {
+        return constructors;
+    }
+
+    public boolean hasNonPrivateConstructor() {
+        return nonPrivateConstructor;
+    }
+
+    /**
+     * @return Whether every member of the class is either a constructor or a static method, which is also
+     * the case for a class with no members at all.
+     */
+    public boolean hasOnlyConstructorsAndStaticMethods() {
+        return onlyConstructorsAndStaticMethods;
+    }
+
+    /**
+     * @return The fields the class declares, in the order it declares them.
+     */
+    public List<J.VariableDecls.NamedVar> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return The {@code void finalize()} method, if the class declares one.
+     */
+    @Nullable
+    public J.MethodDecl getFinalizer() {
+        return finalizer;
+    }
+
+    private static boolean isFinalizer(J.MethodDecl method) {
+        return method.getSimpleName().equals("finalize") &&
+                method.getReturnTypeExpr() != null &&
+                JavaType.Primitive.Void.equals(method.getReturnTypeExpr().getType()) &&
+                method.getParams().getParams().stream().allMatch(p -> p instanceof J.Empty);
+    }
+}
@@ -15,14 +15,22 @@
  */
 package org.openrewrite.checkstyle;
 
-import org.openrewrite.Cursor;
 import org.openrewrite.AutoConfigure;
+import org.openrewrite.Formatting;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaRefactorVisitor;
 import org.openrewrite.java.tree.*;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static org.openrewrite.Formatting.*;
@@ -30,32 +38,28 @@ import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class CovariantEquals extends CheckstyleRefactorVisitor {
-    private final JavaParser javaParser;
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.MethodDecl.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.MethodDecl.class, J.Annotation.class);
 
     public CovariantEquals() {
-        // TODO simplify this when conditional parser builder is added to rewrite-java
-        JavaParser.Builder<? extends JavaParser, ?> javaParserBuilder;
-        try {
-            if (System.getProperty("java.version").startsWith("1.8")) {
-                javaParserBuilder = (JavaParser.Builder<? extends JavaParser, ?>) Class
-                        .forName("org.openrewrite.java.Java8Parser")
-                        .getDeclaredMethod("builder")
-                        .invoke(null);
-            } else {
-                javaParserBuilder = (JavaParser.Builder<? extends JavaParser, ?>) Class
-                        .forName("org.openrewrite.java.Java11Parser")
-                        .getDeclaredMethod("builder")
-                        .invoke(null);
-            }
-        } catch (Exception e) {
-            throw new IllegalStateException("Unable to create a Java parser instance. " +
-                    "`rewrite-java-8` or `rewrite-java-11` must be on the classpath.");
-        }
-
-        this.javaParser = javaParserBuilder.build();
         setCursoringOn();
     }
 
+    @Override
+    public Set<String> getLexicalTriggers() {
+        return singleton("equals");
+    }
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitMethod(J.MethodDecl method) {
         J.MethodDecl m = refactor(method, super::visitMethod);
@@ -90,11 +94,10 @@ public class CovariantEquals extends CheckstyleRefactorVisitor {
     }
 
     private J.MethodDecl addEqualsBody(J.MethodDecl method, J.VariableDecls.NamedVar oldParamName, J.VariableDecls.NamedVar paramName) {
-        String paramNameStr = paramName.printTrimmed();
-        List<Statement> equalsBody = treeBuilder.buildSnippet(new Cursor(getCursor(), method.getBody()),
-                "if (this == " + paramNameStr + ") return true;\n" +
-                        "if (" + paramNameStr + " == null || getClass() != " + paramNameStr + ".getClass()) return false;\n" +
-                        "Test " + oldParamName.printTrimmed() + " = (Test) " + paramNameStr + ";\n");
+        J.ClassDecl enclosingClass = enclosingClass();
+        List<Statement> equalsBody = EqualsBodyTemplate.instantiate(enclosingClass.getSimpleName(),
+                TypeUtils.asClass(enclosingClass.getType()), paramName.printTrimmed(), oldParamName.getSimpleName(),
+                formatter.format(method.getBody()));
 
         equalsBody.addAll(method.getBody().getStatements());
 
@@ -137,4 +140,181 @@ public class CovariantEquals extends CheckstyleRefactorVisitor {
         // we know this method is public, so there must be a modifier;
         return method.getModifiers().iterator().next().getFormatting().getPrefix();
     }
+
+    /**
+     * The statements that an equals method that takes an Object starts with, parsed once, the first time a
+     * covariant equals is fixed, with a parser that is shared by every instance of this check. Each fix
+     * instantiates them for its class by substituting the names of the class, the parameter, and the cast
+     * parameter, and then copies every node of the instance with a fresh id, so that instances in the same
+     * compilation unit are distinct trees.
+     */
+    private static class EqualsBodyTemplate {
+        private static final String TYPE = "$Type$";
+        private static final String PARAM = "$param$";
+        private static final String CAST = "$cast$";
+
+        private static final List<Statement> STATEMENTS = parse();
+
+        private static List<Statement> parse() {
+            J.CompilationUnit cu = javaParser().parse(
+                    "class " + TYPE + " {\n" +
+                            "    public boolean equals(Object " + PARAM + ") {\n" +
+                            "        if (this == " + PARAM + ") return true;\n" +
+                            "        if (" + PARAM + " == null || getClass() != " + PARAM + ".getClass()) return false;\n" +
+                            "        " + TYPE + " " + CAST + " = (" + TYPE + ") " + PARAM + ";\n" +
+                            "    }\n" +
+                            "}"
+            ).get(0);
+
+            J.Block<Statement> body = cu.getClasses().get(0).getMethods().get(0).getBody();
+            if (body == null) {
+                throw new IllegalStateException("Expected the equals template to have a body");
+            }
+            return body.getStatements();
+        }
+
+        private static JavaParser javaParser() {
+            // TODO simplify this when conditional parser builder is added to rewrite-java
+            JavaParser.Builder<? extends JavaParser, ?> javaParserBuilder;
+            try {
+                if (System.getProperty("java.version").startsWith("1.8")) {
+                    javaParserBuilder = (JavaParser.Builder<? extends JavaParser, ?>) Class
+                            .forName("org.openrewrite.java.Java8Parser")
+                            .getDeclaredMethod("builder")
+                            .invoke(null);
+                } else {
+                    javaParserBuilder = (JavaParser.Builder<? extends JavaParser, ?>) Class
+                            .forName("org.openrewrite.java.Java11Parser")
+                            .getDeclaredMethod("builder")
+                            .invoke(null);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Unable to create a Java parser instance. " +
+                        "`rewrite-java-8` or `rewrite-java-11` must be on the classpath.");
+            }
+
+            return javaParserBuilder.build();
+        }
+
+        static List<Statement> instantiate(String className, @Nullable JavaType.Class classType, String paramName,
+                                           String castName, Formatting statementFormatting) {
+            SubstituteNames substitute = new SubstituteNames(className, classType, paramName, castName);
+            List<Statement> statements = new ArrayList<>(STATEMENTS.size());
+            for (Statement statement : STATEMENTS) {
+                Statement s = withFreshIds((Statement) substitute.visit(statement));
+                statements.add(s.withFormatting(statementFormatting));
+            }
+            return statements;
+        }
+
+        /**
+         * @return A copy of the tree in which every node has a fresh id. Each node is copied with
+         * {@link Tree#withFormatting(Formatting)}, which every kind of node has, and then its id and the nodes it
+         * holds, directly or in lists, are replaced in the copy, which nothing else refers to yet.
+         */
+        @SuppressWarnings("unchecked")
+        static <T extends Tree> T withFreshIds(T tree) {
+            Formatting formatting = tree.getFormatting();
+            Tree copy = tree.withFormatting(format(formatting.getPrefix() + " ")).withFormatting(formatting);
+            try {
+                for (Class<?> c = copy.getClass(); c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        if ("id".equals(field.getName()) && UUID.class.equals(field.getType())) {
+                            field.set(copy, randomId());
+                        } else {
+                            Object value = field.get(copy);
+                            if (value instanceof Tree) {
+                                field.set(copy, withFreshIds((Tree) value));
+                            } else if (value instanceof List) {
+                                List<Object> elements = new ArrayList<>(((List<?>) value).size());
+                                for (Object element : (List<?>) value) {
+                                    elements.add(element instanceof Tree ? withFreshIds((Tree) element) : element);
+                                }
+                                field.set(copy, elements);
+                            }
+                        }
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to give the equals template fresh ids", e);
+            }
+            return (T) copy;
+        }
+
+        private static class SubstituteNames extends JavaRefactorVisitor {
+            private final String className;
+
+            @Nullable
+            private final JavaType.Class classType;
+
+            private final String paramName;
+            private final String castName;
+
+            private SubstituteNames(String className, @Nullable JavaType.Class classType, String paramName, String castName) {
+                this.className = className;
+                this.classType = classType;
+                this.paramName = paramName;
+                this.castName = castName;
+            }
+
+            @Override
+            public J visitIdentifier(J.Ident ident) {
+                J.Ident i = refactor(ident, super::visitIdentifier);
+                return substitute(i);
+            }
+
+            @Override
+            public J visitVariable(J.VariableDecls.NamedVar variable) {
+                J.VariableDecls.NamedVar v = refactor(variable, super::visitVariable);
+                if (CAST.equals(variable.getSimpleName())) {
+                    v = v.withType(classType);
+                }
+                return v;
+            }
+
+            @Override
+            public J visitMethodInvocation(J.MethodInvocation method) {
+                J.MethodInvocation m = refactor(method, super::visitMethodInvocation);
+                return m.withType(substitute(m.getType()));
+            }
+
+            private J.Ident substitute(J.Ident ident) {
+                switch (ident.getSimpleName()) {
+                    case TYPE:
+                        return J.Ident.build(ident.getId(), className, classType, ident.getFormatting());
+                    case PARAM:
+                        return ident.withName(paramName);
+                    case CAST:
+                        return J.Ident.build(ident.getId(), castName, classType, ident.getFormatting());
+                    default:
+                        return isTemplateType(ident.getType()) ?
+                                J.Ident.build(ident.getId(), ident.getSimpleName(), classType, ident.getFormatting()) :
+                                ident;
+                }
+            }
+
+            /**
+             * @return The method type, declared by the class rather than the template's class if it was, e.g. that
+             * of {@code getClass()}.
+             */
+            @Nullable
+            private JavaType.Method substitute(@Nullable JavaType.Method type) {
+                if (type == null || !isTemplateType(type.getDeclaringType())) {
+                    return type;
+                }
+                return JavaType.Method.build(classType == null ? JavaType.Class.build(className) : classType,
+                        type.getName(), type.getGenericSignature(), type.getResolvedSignature(), type.getParamNames(),
+                        type.getFlags());
+            }
+
+            private static boolean isTemplateType(@Nullable JavaType type) {
+                return type instanceof JavaType.FullyQualified &&
+                        TYPE.equals(((JavaType.FullyQualified) type).getFullyQualifiedName());
+            }
+        }
+    }
 }
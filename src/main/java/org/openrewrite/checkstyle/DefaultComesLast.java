@@ -21,12 +21,17 @@ import org.openrewrite.java.tree.Statement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
 import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class DefaultComesLast extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.Switch.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.Switch.class, J.Case.class, J.Break.class);
+
     private boolean skipIfLastAndSharedWithCase;
 
     @Override
@@ -35,53 +40,41 @@ public class DefaultComesLast extends CheckstyleRefactorVisitor {
     }
 
     @Override
-    public J visitSwitch(J.Switch switzh) {
-        J.Switch s = refactor(switzh, super::visitSwitch);
+    public Set<String> getLexicalTriggers() {
+        return singleton("default");
+    }
 
-        if (!defaultIsLastOrNotPresent(switzh)) {
-            List<J.Case> cases = s.getCases().getStatements();
-            List<J.Case> fixedCases = new ArrayList<>(cases.size());
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
 
-            int defaultCaseIndex = -1;
-            J.Case defaultCase = null;
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
 
-            for (int i = 0; i < cases.size(); i++) {
-                J.Case aCase = cases.get(i);
-                if (isDefault(aCase)) {
-                    defaultCaseIndex = i;
-                    defaultCase = aCase;
-                }
-            }
+    @Override
+    public J visitSwitch(J.Switch switzh) {
+        J.Switch s = refactor(switzh, super::visitSwitch);
 
-            List<J.Case> casesGroupedWithDefault = new ArrayList<>();
+        SwitchModel model = getSwitchModel(s);
+        if (!defaultIsLastOrNotPresent(model)) {
+            List<J.Case> cases = model.getCases();
+            int defaultCaseIndex = model.getDefaultIndex();
+            J.Case defaultCase = model.getDefaultCase();
 
-            boolean foundNonEmptyCase = false;
-            for (int i = defaultCaseIndex - 1; i >= 0; i--) {
-                J.Case aCase = cases.get(i);
-                if (aCase.getStatements().isEmpty() && !foundNonEmptyCase) {
-                    casesGroupedWithDefault.add(0, aCase);
-                } else {
-                    foundNonEmptyCase = true;
-                    fixedCases.add(0, aCase);
-                }
-            }
+            // the empty cases right before default share its statements and move with it
+            int groupStart = model.getGroupStart(defaultCaseIndex);
+            List<J.Case> fixedCases = new ArrayList<>(cases.subList(0, groupStart));
+            List<J.Case> casesGroupedWithDefault = new ArrayList<>(cases.subList(groupStart, defaultCaseIndex));
 
-            foundNonEmptyCase = false;
-            for (int i = defaultCaseIndex + 1; i < cases.size(); i++) {
-                J.Case aCase = cases.get(i);
-                if (defaultCase != null && defaultCase.getStatements().isEmpty() &&
-                        aCase.getStatements().isEmpty() && !foundNonEmptyCase) {
-                    casesGroupedWithDefault.add(aCase);
-                } else {
-                    if (defaultCase != null && defaultCase.getStatements().isEmpty() && !foundNonEmptyCase) {
-                        // the last case grouped with default can be non-empty. it will be flipped with
-                        // the default case, including its statements
-                        casesGroupedWithDefault.add(aCase);
-                    }
-                    foundNonEmptyCase = true;
-                    fixedCases.add(aCase);
-                }
-            }
+            // when default is empty, so do the cases after it up to the one whose statements they all share.
+            // the last case grouped with default can be non-empty. it will be flipped with the default case,
+            // including its statements
+            int groupEnd = model.isEmpty(defaultCaseIndex) ? model.getGroupEnd(defaultCaseIndex) : defaultCaseIndex;
+            casesGroupedWithDefault.addAll(cases.subList(defaultCaseIndex + 1, groupEnd + 1));
+            fixedCases.addAll(cases.subList(groupEnd + 1, cases.size()));
 
             if (defaultCase != null && !casesGroupedWithDefault.isEmpty()) {
                 J.Case lastGroupedWithDefault = casesGroupedWithDefault.get(casesGroupedWithDefault.size() - 1);
@@ -92,10 +85,10 @@ public class DefaultComesLast extends CheckstyleRefactorVisitor {
                 }
             }
 
-            J.Case lastNotGroupedWithDefault = fixedCases.get(fixedCases.size() - 1);
-            if (!lastNotGroupedWithDefault.getStatements().stream().reduce((s1, s2) -> s2)
-                    .map(stat -> stat instanceof J.Break || stat instanceof J.Continue ||
-                            stat instanceof J.Return || stat instanceof J.Throw)
+            J.Case lastNotGroupedWithDefault = fixedCases.isEmpty() ? null : fixedCases.get(fixedCases.size() - 1);
+            if (lastNotGroupedWithDefault != null && !lastNotGroupedWithDefault.getStatements().stream()
+                    .reduce((s1, s2) -> s2)
+                    .map(SwitchModel::isTerminal)
                     .orElse(false)) {
 
                 // add a break statement since this case is now no longer last and would fall through
@@ -143,31 +136,10 @@ public class DefaultComesLast extends CheckstyleRefactorVisitor {
         return stat instanceof J.Return && ((J.Return) stat).getExpr() == null;
     }
 
-    private boolean defaultIsLastOrNotPresent(J.Switch switzh) {
-        J.Case defaultCase = null;
-        J.Case prior = null;
-        for (J.Case aCase : switzh.getCases().getStatements()) {
-            if (defaultCase != null) {
-                // default case was not last
-                return false;
-            }
-
-            if (isDefault(aCase)) {
-                defaultCase = aCase;
-            }
-
-            if (defaultCase != null && prior != null && skipIfLastAndSharedWithCase && prior.getStatements().isEmpty()) {
-                return true;
-            }
-
-            prior = aCase;
-        }
-
-        // either default was not present or it was last
-        return true;
-    }
-
-    private boolean isDefault(J.Case caze) {
-        return caze.getPattern() != null && caze.getPattern().printTrimmed().equals("default");
+    private boolean defaultIsLastOrNotPresent(SwitchModel model) {
+        int defaultIndex = model.getDefaultIndex();
+        return defaultIndex == -1 ||
+                model.isLast(defaultIndex) ||
+                (skipIfLastAndSharedWithCase && defaultIndex > 0 && model.isEmpty(defaultIndex - 1));
     }
 }
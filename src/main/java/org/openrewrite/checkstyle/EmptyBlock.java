@@ -19,11 +19,8 @@ import org.openrewrite.AutoConfigure;
 import org.openrewrite.Tree;
 import org.openrewrite.checkstyle.policy.BlockPolicy;
 import org.openrewrite.checkstyle.policy.Token;
-import org.openrewrite.java.DeleteStatement;
-import org.openrewrite.java.JavaRefactorVisitor;
 import org.openrewrite.java.tree.*;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -32,9 +29,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Collections.singletonList;
-import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
-import static java.util.stream.IntStream.range;
 import static org.openrewrite.Formatting.EMPTY;
 import static org.openrewrite.Formatting.format;
 import static org.openrewrite.Tree.randomId;
@@ -44,6 +39,18 @@ import static org.openrewrite.Tree.randomId;
  */
 @AutoConfigure
 public class EmptyBlock extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.Block.class,
+            J.WhileLoop.class,
+            J.DoWhileLoop.class,
+            J.Try.Catch.class,
+            J.Try.class,
+            J.If.class,
+            J.Synchronized.class,
+            J.Switch.class
+    );
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.If.class, J.Continue.class, J.Throw.class, J.Empty.class);
+
     private static final Set<Token> DEFAULT_TOKENS = Stream.of(
             Token.LITERAL_WHILE,
             Token.LITERAL_TRY,
@@ -72,6 +79,16 @@ public class EmptyBlock extends CheckstyleRefactorVisitor {
     }
 
     @SuppressWarnings("unchecked")
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitWhileLoop(J.WhileLoop whileLoop) {
         J.WhileLoop w = refactor(whileLoop, super::visitWhileLoop);
@@ -175,7 +192,7 @@ public class EmptyBlock extends CheckstyleRefactorVisitor {
         J.Try t = refactor(tryable, super::visitTry);
 
         if (tokens.contains(Token.LITERAL_TRY) && isEmptyBlock(t.getBody())) {
-            andThen(new DeleteStatement.Scoped(tryable));
+            edits().delete(tryable);
         } else if (tokens.contains(Token.LITERAL_FINALLY) && t.getFinally() != null && isEmptyBlock(t.getFinally().getBody())) {
             t = t.withFinally(null);
         }
@@ -194,7 +211,14 @@ public class EmptyBlock extends CheckstyleRefactorVisitor {
 
         if (i.getElsePart() == null) {
             // extract side effects from condition (if there are any).
-            andThen(new ExtractSideEffectsOfIfCondition(enclosingBlock(), i));
+            Tree parent = getCursor().getParentOrThrow().getTree();
+            if (parent instanceof J.Block) {
+                StructuralEdits edits = edits();
+                for (J sideEffect : i.getIfCondition().getTree().getSideEffects()) {
+                    edits.insertAfter(i, (Statement) sideEffect.withFormatting(formatter.format((J.Block<?>) parent)));
+                }
+                edits.delete(i);
+            }
             return i;
         }
 
@@ -238,8 +262,7 @@ public class EmptyBlock extends CheckstyleRefactorVisitor {
         } else if (elseStatement instanceof J.If) {
             // J.If will typically just have a format of one space (the space between "else" and "if" in "else if")
             // we want this to be on its own line now inside its containing if block
-            String prefix = "\n" + range(0, thenPart.getIndent()).mapToObj(n -> " ").collect(joining(""));
-            elseStatementBody = singletonList(elseStatement.withPrefix(prefix));
+            elseStatementBody = singletonList(elseStatement.withPrefix(WhitespaceChecks.linebreakAndIndent(thenPart.getIndent())));
             andThen(formatter.shiftRight(elseStatement, i.getThenPart(), containing));
         } else {
             elseStatementBody = singletonList(elseStatement);
@@ -253,7 +276,7 @@ public class EmptyBlock extends CheckstyleRefactorVisitor {
     @Override
     public J visitSynchronized(J.Synchronized synch) {
         if (tokens.contains(Token.LITERAL_SYNCHRONIZED) && isEmptyBlock(synch.getBody())) {
-            andThen(new DeleteStatement.Scoped(synch));
+            edits().delete(synch);
         }
 
         return super.visitSynchronized(synch);
@@ -262,7 +285,7 @@ public class EmptyBlock extends CheckstyleRefactorVisitor {
     @Override
     public J visitSwitch(J.Switch switzh) {
         if (tokens.contains(Token.LITERAL_SWITCH) && isEmptyBlock(switzh.getCases())) {
-            andThen(new DeleteStatement.Scoped(switzh));
+            edits().delete(switzh);
         }
 
         return super.visitSwitch(switzh);
@@ -273,34 +296,4 @@ public class EmptyBlock extends CheckstyleRefactorVisitor {
                 blockNode instanceof J.Block &&
                 ((J.Block<?>) blockNode).getStatements().isEmpty();
     }
-
-    private static class ExtractSideEffectsOfIfCondition extends JavaRefactorVisitor {
-        private final J.Block<?> enclosingBlock;
-        private final J.If toExtract;
-
-        public ExtractSideEffectsOfIfCondition(J.Block<?> enclosingBlock, J.If toExtract) {
-            this.enclosingBlock = enclosingBlock;
-            this.toExtract = toExtract;
-        }
-
-        @Override
-        public J visitBlock(J.Block<J> block) {
-            J.Block<J> b = refactor(block, super::visitBlock);
-            if (enclosingBlock.isScope(block)) {
-                List<J> statements = new ArrayList<>(b.getStatements().size());
-                for (J statement : b.getStatements()) {
-                    if (statement == toExtract) {
-                        toExtract.getIfCondition().getTree().getSideEffects()
-                                .stream()
-                                .map(s -> (J) s.withFormatting(formatter.format(block)))
-                                .forEach(statements::add);
-                    } else {
-                        statements.add(statement);
-                    }
-                }
-                b = b.withStatements(statements);
-            }
-            return b;
-        }
-    }
 }
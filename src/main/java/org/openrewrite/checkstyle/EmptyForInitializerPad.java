@@ -20,8 +20,12 @@ import org.openrewrite.AutoConfigure;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.Statement;
 
+import java.util.Set;
+
 @AutoConfigure
 public class EmptyForInitializerPad extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.ForLoop.class);
+
     private PadPolicy option;
 
     @Override
@@ -29,6 +33,11 @@ public class EmptyForInitializerPad extends CheckstyleRefactorVisitor {
         option = m.propAsOptionValue(PadPolicy::valueOf, PadPolicy.NOSPACE);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitForLoop(J.ForLoop forLoop) {
         J.ForLoop f = refactor(forLoop, super::visitForLoop);
@@ -19,11 +19,15 @@ import org.openrewrite.checkstyle.policy.PadPolicy;
 import org.openrewrite.AutoConfigure;
 import org.openrewrite.java.tree.J;
 
+import java.util.Set;
+
 import static org.openrewrite.Formatting.formatLastSuffix;
 import static org.openrewrite.Formatting.lastSuffix;
 
 @AutoConfigure
 public class EmptyForIteratorPad extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.ForLoop.class);
+
     private PadPolicy option;
 
     @Override
@@ -31,6 +35,11 @@ public class EmptyForIteratorPad extends CheckstyleRefactorVisitor {
         option = m.propAsOptionValue(PadPolicy::valueOf, PadPolicy.NOSPACE);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitForLoop(J.ForLoop forLoop) {
         J.ForLoop f = refactor(forLoop, super::visitForLoop);
@@ -15,107 +15,83 @@
  */
 package org.openrewrite.checkstyle;
 
-import org.openrewrite.Cursor;
-import org.openrewrite.Tree;
 import org.openrewrite.AutoConfigure;
-import org.openrewrite.java.DeleteStatement;
-import org.openrewrite.java.JavaRefactorVisitor;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.Statement;
 
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
-
-import static java.util.stream.Collectors.toList;
+import java.util.Set;
 
 @AutoConfigure
 public class EmptyStatement extends CheckstyleRefactorVisitor {
-    public EmptyStatement() {
-        setCursoringOn();
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.If.class,
+            J.ForLoop.class,
+            J.ForEachLoop.class,
+            J.WhileLoop.class,
+            J.Block.class
+    );
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.Block.class);
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
     }
 
     @Override
     public J visitIf(J.If iff) {
         J.If i = refactor(iff, super::visitIf);
-        return i.withThenPart(removeEmptyStatement(i.getThenPart()));
+        return i.withThenPart(removeEmptyStatement(iff, i.getThenPart()));
     }
 
     @Override
     public J visitForLoop(J.ForLoop forLoop) {
         J.ForLoop f = refactor(forLoop, super::visitForLoop);
-        return f.withBody(removeEmptyStatement(f.getBody()));
+        return f.withBody(removeEmptyStatement(forLoop, f.getBody()));
     }
 
     @Override
     public J visitForEachLoop(J.ForEachLoop forEachLoop) {
         J.ForEachLoop f = refactor(forEachLoop, super::visitForEachLoop);
-        return f.withBody(removeEmptyStatement(f.getBody()));
+        return f.withBody(removeEmptyStatement(forEachLoop, f.getBody()));
     }
 
     @Override
     public J visitWhileLoop(J.WhileLoop whileLoop) {
         J.WhileLoop w = refactor(whileLoop, super::visitWhileLoop);
-        return w.withBody(removeEmptyStatement(w.getBody()));
+        return w.withBody(removeEmptyStatement(whileLoop, w.getBody()));
     }
 
-    private Statement removeEmptyStatement(Statement t) {
+    /**
+     * @param statement The statement whose body is being fixed, as it was before this visit.
+     * @param t         Its body.
+     */
+    private Statement removeEmptyStatement(Statement statement, Statement t) {
         if (!isEmptyStatement(t)) {
             return t;
         }
 
-        return nextStatement()
-                .map(s -> {
-                    // Remove the next statement's appearance in the parent block so it can be moved.
-                    andThen(new RemoveStatementFromParentBlock(getCursor(), s));
+        Statement next = getParentIndex().nextStatement(statement);
+        if (next == null) {
+            // This is the last statement in the block. There is nothing that could
+            // execute in the body of this statement, so just remove it.
+            edits().delete(statement);
+            return t;
+        }
 
-                    // Move next statement in the parent block to be underneath this statement.
-                    return s;
-                })
-                .orElseGet(() -> {
-                    // This is the last statement in the block. There is nothing that could
-                    // execute in the body of this statement, so just remove it.
-                    andThen(new DeleteStatement.Scoped(getCursor().getTree()));
-                    return t;
-                });
-    }
+        // Remove the next statement's appearance in the parent block so it can be moved. The removals from
+        // a block are all applied together, in one rewrite of the block.
+        edits().delete(next);
 
-    @SuppressWarnings("unchecked")
-    private Optional<Statement> nextStatement() {
-        Tree parent = getCursor().getParentOrThrow().getTree();
-        AtomicBoolean dropWhile = new AtomicBoolean(false);
-        return parent instanceof J.Block ?
-                ((J.Block<Statement>) parent).getStatements().stream()
-                        .filter(s -> {
-                            dropWhile.set(dropWhile.get() || s == getCursor().getTree());
-                            return dropWhile.get();
-                        })
-                        .skip(1)
-                        .findFirst() :
-                Optional.empty();
+        // Move next statement in the parent block to be underneath this statement.
+        return next;
     }
 
     private boolean isEmptyStatement(Statement statement) {
         return statement instanceof J.Empty;
     }
-
-    private static class RemoveStatementFromParentBlock extends JavaRefactorVisitor {
-        private final Tree scope;
-        private final Statement statement;
-
-        public RemoveStatementFromParentBlock(Cursor cursor, Statement statement) {
-            this.scope = cursor.getParentOrThrow().getTree();
-            this.statement = statement;
-        }
-
-        @Override
-        public J visitBlock(J.Block<J> block) {
-            J.Block<J> b = refactor(block, super::visitBlock);
-            if (scope.isScope(block)) {
-                b = b.withStatements(b.getStatements().stream()
-                        .filter(s -> s != statement)
-                        .collect(toList()));
-            }
-            return b;
-        }
-    }
 }
@@ -15,20 +15,27 @@
  */
 package org.openrewrite.checkstyle;
 
+import org.openrewrite.Cursor;
 import org.openrewrite.Tree;
 import org.openrewrite.AutoConfigure;
-import org.openrewrite.java.JavaRefactorVisitor;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.UnwrapParentheses;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 
+import java.util.Set;
+
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.openrewrite.Formatting.EMPTY;
 import static org.openrewrite.Formatting.stripPrefix;
 
 @AutoConfigure
 public class EqualsAvoidsNull extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.MethodInvocation.class, J.Binary.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.MethodInvocation.class, J.Binary.class);
+
     private static final MethodMatcher STRING_EQUALS = new MethodMatcher("String equals(java.lang.Object)");
     private static final MethodMatcher STRING_EQUALS_IGNORE_CASE = new MethodMatcher("String equalsIgnoreCase(java.lang.String)");
 
@@ -43,6 +50,21 @@ public class EqualsAvoidsNull extends CheckstyleRefactorVisitor {
         this.ignoreEqualsIgnoreCase = m.prop("ignoreEqualsIgnoreCase", false);
     }
 
+    @Override
+    public Set<String> getLexicalTriggers() {
+        return singleton("equals");
+    }
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitMethodInvocation(J.MethodInvocation method) {
         J.MethodInvocation m = refactor(method, super::visitMethodInvocation);
@@ -57,7 +79,13 @@ public class EqualsAvoidsNull extends CheckstyleRefactorVisitor {
                     J.Binary potentialNullCheck = (J.Binary) binary.getLeft();
                     if ((isNullLiteral(potentialNullCheck.getLeft()) && matchesSelect(potentialNullCheck.getRight(), m.getSelect())) ||
                             (isNullLiteral(potentialNullCheck.getRight()) && matchesSelect(potentialNullCheck.getLeft(), m.getSelect()))) {
-                        andThen(new RemoveUnnecessaryNullCheck(binary));
+                        edits().replace(binary, b -> stripPrefix(b.getRight()));
+
+                        Cursor maybeParentheses = getCursor().getParentOrThrow().getParentOrThrow();
+                        if (UnwrapParentheses.isUnwrappable(maybeParentheses)) {
+                            edits().replace(maybeParentheses.<J.Parentheses<?>>getTree(),
+                                    parens -> parens.getTree().withFormatting(parens.getFormatting()));
+                        }
                     }
                 }
             }
@@ -74,26 +102,6 @@ public class EqualsAvoidsNull extends CheckstyleRefactorVisitor {
     }
 
     private boolean matchesSelect(Expression expression, Expression select) {
-        return expression.printTrimmed().replaceAll("\\s", "").equals(select.printTrimmed().replaceAll("\\s", ""));
-    }
-
-    private static class RemoveUnnecessaryNullCheck extends JavaRefactorVisitor {
-        private final J.Binary scope;
-
-        public RemoveUnnecessaryNullCheck(J.Binary scope) {
-            this.scope = scope;
-            setCursoringOn();
-        }
-
-        @Override
-        public J visitBinary(J.Binary binary) {
-            maybeUnwrapParentheses(getCursor().getParent());
-
-            if (scope.isScope(binary)) {
-                return stripPrefix(binary.getRight());
-            }
-
-            return super.visitBinary(binary);
-        }
+        return getStructuralEquality().equal(expression, select);
     }
 }
@@ -15,44 +15,52 @@
  */
 package org.openrewrite.checkstyle;
 
-import org.openrewrite.Cursor;
 import org.openrewrite.AutoConfigure;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.Set;
+
 import static org.openrewrite.Formatting.formatLastSuffix;
 import static org.openrewrite.Formatting.stripSuffix;
 
 @AutoConfigure
 public class ExplicitInitialization extends CheckstyleRefactorVisitor {
-    private boolean onlyObjectReferences;
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.VariableDecls.NamedVar.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.VariableDecls.NamedVar.class);
 
-    public ExplicitInitialization() {
-        setCursoringOn();
-    }
+    private boolean onlyObjectReferences;
 
     @Override
     protected void configure(Module m) {
         this.onlyObjectReferences = m.prop("onlyObjectReferences", false);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitVariable(J.VariableDecls.NamedVar variable) {
         J.VariableDecls.NamedVar v = refactor(variable, super::visitVariable);
 
-        Cursor variableDeclsCursor = getCursor().getParentOrThrow();
-        if (!(variableDeclsCursor // J.VariableDecls
-                .getParentOrThrow() // maybe J.Block
-                .getParentOrThrow() // maybe J.ClassDecl
-                .getTree() instanceof J.ClassDecl)) {
+        ParentIndex parents = getParentIndex();
+        J tree = parents.getParentOrThrow(variable); // J.VariableDecls
+        J maybeBlock = parents.getParentOrThrow(tree);
+        if (!(parents.getParentOrThrow(maybeBlock) instanceof J.ClassDecl)) {
             return v;
         }
 
         JavaType.Primitive primitive = TypeUtils.asPrimitive(variable.getType());
         JavaType.Array array = TypeUtils.asArray(variable.getType());
 
-        J tree = variableDeclsCursor.getTree();
         if(!(tree instanceof J.VariableDecls)) {
             return v;
         }
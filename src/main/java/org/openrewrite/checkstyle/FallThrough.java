@@ -16,7 +16,9 @@
 package org.openrewrite.checkstyle;
 
 import org.openrewrite.AutoConfigure;
+import org.openrewrite.Formatting;
 import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.AbstractJavaSourceVisitor;
 import org.openrewrite.java.JavaRefactorVisitor;
 import org.openrewrite.java.tree.J;
@@ -25,25 +27,30 @@ import org.openrewrite.java.tree.Statement;
 import java.util.*;
 import java.util.regex.Pattern;
 
+import static java.util.Collections.singleton;
 import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class FallThrough extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.Switch.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.Break.class);
+
     private boolean checkLastCaseGroup;
     private Pattern reliefPattern;
 
     private final Set<UUID> casesToAddBreak = new HashSet<>();
 
-    public FallThrough() {
-        setCursoringOn();
-    }
-
     @Override
     protected void configure(Module m) {
         this.checkLastCaseGroup = m.prop("checkLastCaseGroup", false);
         this.reliefPattern = m.prop("reliefPattern", Pattern.compile("falls?[ -]?thr(u|ough)"));
     }
 
+    @Override
+    public Set<String> getLexicalTriggers() {
+        return singleton("switch");
+    }
+
     @Override
     public void next() {
         casesToAddBreak.clear();
@@ -51,27 +58,98 @@ public class FallThrough extends CheckstyleRefactorVisitor {
     }
 
     @Override
-    public J visitCase(J.Case caze) {
-        J.Switch switzh = getCursor().getParentOrThrow().getParentOrThrow().getTree();
-        if ((checkLastCaseGroup || !isLastCase(caze)) && !new LastLineBreaksOrFallsThrough(caze).visit(switzh)) {
-            if (casesToAddBreak.add(caze.getId())) {
-                andThen(new AddBreak(caze));
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
+    /**
+     * Works out whether each case of the switch breaks or is relieved by a comment in one pass over the switch,
+     * and queues a break for every case that falls through.
+     */
+    @Override
+    public J visitSwitch(J.Switch switzh) {
+        J.Switch s = refactor(switzh, super::visitSwitch);
+
+        SwitchModel model = getSwitchModel(switzh);
+        if (model.hasNoCases()) {
+            return s;
+        }
+        for (String trailingComment : model.getTrailingComments()) {
+            // a relief comment after the last case relieves every case
+            if (isRelief(trailingComment)) {
+                return s;
             }
         }
-        return super.visitCase(caze);
+
+        List<J.Case> cases = model.getCases();
+        Formatting breakFormatting = null;
+        for (int i = 0; i < cases.size(); i++) {
+            J.Case caze = cases.get(i);
+            if (model.isLast(i)) {
+                if (!checkLastCaseGroup) {
+                    break;
+                }
+            } else if (isRelief(model.getLeadingComment(i + 1))) {
+                // because a last-line comment winds up getting attached as a formatting prefix to the NEXT case statement!
+                continue;
+            }
+
+            if (!model.isTerminal(i) && !breaksOrFallsThrough(caze) && casesToAddBreak.add(caze.getId())) {
+                if (breakFormatting == null) {
+                    breakFormatting = formatter.format(getParentIndex().<J.Block<?>>getParentOrThrow(caze));
+                }
+                Formatting f = breakFormatting;
+                edits().replace(caze, c -> (J.Case) new AddBreak(caze, f).visit(c));
+            }
+        }
+
+        return s;
     }
 
-    private boolean isLastCase(J.Case caze) {
-        J.Block<Statement> switchBlock = getCursor().getParentOrThrow().getTree();
-        return caze == switchBlock.getStatements().get(switchBlock.getStatements().size() - 1);
+    private boolean breaksOrFallsThrough(J.Case caze) {
+        if (lastLineBreaksOrFallsThrough(caze.getStatements())) {
+            return true;
+        }
+        for (Statement statement : caze.getStatements()) {
+            if (new NestedBlockBreaksOrFallsThrough().visit(statement)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private static class AddBreak extends JavaRefactorVisitor {
+    private boolean lastLineBreaksOrFallsThrough(List<? extends J> trees) {
+        if (trees.isEmpty()) {
+            return false;
+        }
+        J s = trees.get(trees.size() - 1);
+        return SwitchModel.isTerminal(s) ||
+                (s instanceof J.Empty && isRelief(SwitchModel.commentOrNull(s.getFormatting().getPrefix()))) ||
+                isRelief(SwitchModel.commentOrNull(s.getFormatting().getSuffix()));
+    }
+
+    /**
+     * Only a comment can match the relief pattern, so whitespace that has no comment in it isn't matched against it.
+     */
+    private boolean isRelief(@Nullable String comment) {
+        return comment != null && reliefPattern.matcher(comment).find();
+    }
+
+    /**
+     * Adds a break to the end of a case, and to the end of each block in it that doesn't already end in one.
+     */
+    private class AddBreak extends JavaRefactorVisitor {
         private final J.Case scope;
+        private final Formatting breakFormatting;
 
-        public AddBreak(J.Case scope) {
+        public AddBreak(J.Case scope, Formatting breakFormatting) {
             this.scope = scope;
-            setCursoringOn();
+            this.breakFormatting = breakFormatting;
         }
 
         @Override
@@ -85,8 +163,7 @@ public class FallThrough extends CheckstyleRefactorVisitor {
                             .map(s -> !(s instanceof J.Block))
                             .orElse(true)) {
                 List<Statement> statements = new ArrayList<>(c.getStatements());
-                J.Block<J.Case> switchBlock = getCursor().getParentOrThrow().getTree();
-                statements.add(new J.Break(randomId(), null, formatter.format(switchBlock)));
+                statements.add(new J.Break(randomId(), null, breakFormatting));
                 c = c.withStatements(statements);
             }
 
@@ -97,14 +174,13 @@ public class FallThrough extends CheckstyleRefactorVisitor {
         public J visitBlock(J.Block<J> block) {
             J.Block<J> b = refactor(block, super::visitBlock);
 
-            if (getCursor().isScopeInPath(scope) &&
-                    block.getStatements().stream().noneMatch(s -> s instanceof J.Break) &&
+            if (block.getStatements().stream().noneMatch(s -> s instanceof J.Break) &&
                     block.getStatements().stream()
                             .reduce((s1, s2) -> s2)
                             .map(s -> !(s instanceof J.Block))
                             .orElse(true)) {
-                List<J> statements = b.getStatements();
-                statements.add(new J.Break(randomId(), null, formatter.format(b)));
+                List<J> statements = new ArrayList<>(b.getStatements());
+                statements.add(new J.Break(randomId(), null, FallThrough.this.formatter.format(b)));
                 b = b.withStatements(statements);
             }
 
@@ -112,54 +188,31 @@ public class FallThrough extends CheckstyleRefactorVisitor {
         }
     }
 
-    private class LastLineBreaksOrFallsThrough extends AbstractJavaSourceVisitor<Boolean> {
-        private final J.Case scope;
-
-        private LastLineBreaksOrFallsThrough(J.Case scope) {
-            this.scope = scope;
-        }
-
+    /**
+     * Whether any block nested in a case ends in a statement that breaks or falls through, or with a relief
+     * comment. Doesn't go into the cases of nested switches.
+     */
+    private class NestedBlockBreaksOrFallsThrough extends AbstractJavaSourceVisitor<Boolean> {
         @Override
         public Boolean defaultTo(Tree t) {
             return false;
         }
 
         @Override
-        public Boolean visitSwitch(J.Switch switzh) {
-            List<J.Case> statements = switzh.getCases().getStatements();
-
-            for (int i = 0; i < statements.size() - 1; i++) {
-                J.Case caze = statements.get(i);
-                // because a last-line comment winds up getting attached as a formatting prefix to the NEXT case statement!
-                if (caze == scope && reliefPattern.matcher(statements.get(i + 1).getFormatting().getPrefix()).find()) {
-                    return true;
-                }
-            }
-
-            return super.visitSwitch(switzh);
+        public Boolean reduce(Boolean r1, Boolean r2) {
+            return r1 || r2;
         }
 
         @Override
         public Boolean visitCase(J.Case caze) {
-            return caze == scope && (lastLineBreaksOrFallsThrough(caze.getStatements()) || super.visitCase(caze));
+            return false;
         }
 
         @Override
         public Boolean visitBlock(J.Block<J> block) {
             return lastLineBreaksOrFallsThrough(block.getStatements()) ||
-                    reliefPattern.matcher(block.getEnd().getPrefix()).find() ||
+                    isRelief(SwitchModel.commentOrNull(block.getEnd().getPrefix())) ||
                     super.visitBlock(block);
         }
-
-        private boolean lastLineBreaksOrFallsThrough(List<? extends Tree> trees) {
-            return trees.stream()
-                    .reduce((s1, s2) -> s2) // last statement
-                    .map(s -> s instanceof J.Return ||
-                            s instanceof J.Break ||
-                            s instanceof J.Continue ||
-                            (s instanceof J.Empty && reliefPattern.matcher(s.getFormatting().getPrefix()).find()) ||
-                            reliefPattern.matcher(s.getFormatting().getSuffix()).find())
-                    .orElse(false);
-        }
     }
 }
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AbstractJavaSourceVisitor;
+import org.openrewrite.java.JavaRefactorVisitor;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+
+/**
+ * The source files that refer to each field of a class by qualifying it with a class, e.g. {@code A.MY_FIELD},
+ * or by statically importing it, indexed once per file as the files of a project are parsed, so that when a check
+ * renames a field that other files can see, only the files that refer to it have to be visited again to rename
+ * their references.
+ * <p>
+ * Fields are indexed by the class that declares them, so a reference qualified with a subclass, e.g.
+ * {@code B.MY_FIELD} for a field that {@code B} inherits from {@code A}, is a reference to {@code A}'s field.
+ * When the qualifying class's members aren't known, e.g. because it is declared in a file that was parsed on its
+ * own, the reference is indexed under each class that the qualifier's name may stand for given the file's package
+ * and imports. A reference qualified with a subclass that is declared in another file is then indexed under the
+ * subclass, and isn't renamed.
+ * <p>
+ * Checks record the renames of a run with {@link #rename(JavaType.FullyQualified, String, String)}, and all of
+ * them are then applied together with one visit of each file that refers to any of the renamed fields, which
+ * renames the qualified references, the static imports, and the uses of the names they import that aren't
+ * shadowed by a variable. Unqualified references in the declaring class's subclasses are not indexed.
+ */
+public class FieldReferenceIndex {
+    private final Map<String, Set<String>> referencingFilesByField = new ConcurrentHashMap<>();
+    private final Map<String, String> renames = new ConcurrentHashMap<>();
+
+    public static FieldReferenceIndex of(Collection<J.CompilationUnit> cus) {
+        FieldReferenceIndex index = new FieldReferenceIndex();
+        for (J.CompilationUnit cu : cus) {
+            index.add(cu);
+        }
+        return index;
+    }
+
+    /**
+     * Index the references in a source file, e.g. as soon as it has been parsed.
+     */
+    public void add(J.CompilationUnit cu) {
+        String sourcePath = cu.getSourcePath().toString();
+        new IndexReferences(sourcePath, new ClassNames(cu)).visit(cu);
+    }
+
+    /**
+     * @return The source paths of the files that refer to the field.
+     */
+    public Set<String> getReferencingFiles(JavaType.FullyQualified type, String field) {
+        return referencingFilesByField.getOrDefault(key(type, field), emptySet());
+    }
+
+    /**
+     * Record that a field has been renamed in the class that declares it, so that references to it from other
+     * files are renamed by {@link #renameReferences(Collection)}.
+     */
+    public void rename(JavaType.FullyQualified type, String from, String to) {
+        renames.put(key(type, from), to);
+    }
+
+    public boolean hasRenames() {
+        return !renames.isEmpty();
+    }
+
+    /**
+     * @return The source paths of the indexed files that refer to any of the renamed fields.
+     */
+    public Set<String> getFilesReferringToRenamedFields() {
+        Set<String> referencingFiles = new HashSet<>();
+        for (String field : renames.keySet()) {
+            referencingFiles.addAll(referencingFilesByField.getOrDefault(field, emptySet()));
+        }
+        return referencingFiles;
+    }
+
+    /**
+     * @return The names the renamed fields had, for finding files that weren't indexed that may refer to them.
+     */
+    public Set<String> getRenamedFieldNames() {
+        Set<String> names = new HashSet<>();
+        for (String field : renames.keySet()) {
+            names.add(field.substring(field.indexOf('#') + 1));
+        }
+        return names;
+    }
+
+    /**
+     * Rename the references to every renamed field, visiting only the files that refer to one of them, each
+     * of them once for all the renames.
+     *
+     * @return The compilation units that were changed.
+     */
+    public List<J.CompilationUnit> renameReferences(Collection<J.CompilationUnit> cus) {
+        if (renames.isEmpty()) {
+            return emptyList();
+        }
+
+        Set<String> referencingFiles = getFilesReferringToRenamedFields();
+        List<J.CompilationUnit> changed = new ArrayList<>();
+        RenameReferences renameReferences = new RenameReferences();
+        for (J.CompilationUnit cu : cus) {
+            if (referencingFiles.contains(cu.getSourcePath().toString())) {
+                J.CompilationUnit renamed = (J.CompilationUnit) renameReferences.visit(cu);
+                if (renamed != cu) {
+                    changed.add(renamed);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static String key(JavaType.FullyQualified type, String field) {
+        return type.getFullyQualifiedName() + '#' + field;
+    }
+
+    /**
+     * @return The keys of the fields that a qualified reference may refer to. That is the field of the class that
+     * declares it when the qualifier's type is known, and otherwise the field of each class that the qualifier's
+     * name may stand for.
+     */
+    private static List<String> referencedFields(J.FieldAccess fieldAccess, ClassNames classNames) {
+        String field = fieldAccess.getSimpleName();
+        Expression qualifier = fieldAccess.getTarget();
+        JavaType.Class qualifierClass = TypeUtils.asClass(qualifier.getType());
+        if (qualifierClass != null) {
+            JavaType.Class declaring = declaringClass(qualifierClass, field, new HashSet<>());
+            if (declaring != null) {
+                return singletonList(key(declaring, field));
+            }
+        }
+
+        List<String> fields = new ArrayList<>();
+        if (qualifierClass != null) {
+            fields.add(key(qualifierClass, field));
+        }
+        if (qualifier instanceof J.Ident || qualifier instanceof J.FieldAccess) {
+            for (String className : classNames.resolve(qualifier.printTrimmed())) {
+                fields.add(className + '#' + field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return The class, among the class and its supertypes, that declares the field, or null if none of them
+     * is known to.
+     */
+    @Nullable
+    private static JavaType.Class declaringClass(@Nullable JavaType.Class clazz, String field, Set<String> visited) {
+        if (clazz == null || !visited.add(clazz.getFullyQualifiedName())) {
+            return null;
+        }
+        if (member(clazz, field) != null) {
+            return clazz;
+        }
+
+        JavaType.Class declaring = declaringClass(clazz.getSupertype(), field, visited);
+        if (declaring == null) {
+            for (JavaType.Class anInterface : clazz.getInterfaces()) {
+                declaring = declaringClass(anInterface, field, visited);
+                if (declaring != null) {
+                    break;
+                }
+            }
+        }
+        return declaring;
+    }
+
+    @Nullable
+    private static JavaType.Var member(JavaType.Class clazz, String field) {
+        for (JavaType.Var member : clazz.getMembers()) {
+            if (member.getName().equals(field)) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The fully qualified names that the names of classes in a compilation unit may stand for, from its package and
+     * its imports, for qualifiers whose types weren't attributed.
+     */
+    private static class ClassNames {
+        private final String packagePrefix;
+        private final Map<String, String> imported = new HashMap<>();
+        private final List<String> importedPackagePrefixes = new ArrayList<>();
+
+        private ClassNames(J.CompilationUnit cu) {
+            this.packagePrefix = cu.getPackageDecl() == null ? "" : cu.getPackageDecl().getExpr().printTrimmed() + '.';
+            for (J.Import anImport : cu.getImports()) {
+                if (anImport.isStatic()) {
+                    continue;
+                }
+                J.FieldAccess qualid = anImport.getQualid();
+                String target = qualid.getTarget().printTrimmed();
+                if ("*".equals(qualid.getSimpleName())) {
+                    importedPackagePrefixes.add(target + '.');
+                } else {
+                    imported.put(qualid.getSimpleName(), target + '.' + qualid.getSimpleName());
+                }
+            }
+        }
+
+        /**
+         * @param name A simple, nested, or fully qualified class name.
+         */
+        List<String> resolve(String name) {
+            int dot = name.indexOf('.');
+            String outermost = dot < 0 ? name : name.substring(0, dot);
+            String importedName = imported.get(outermost);
+            if (importedName != null) {
+                return singletonList(dot < 0 ? importedName : importedName + name.substring(dot));
+            }
+
+            List<String> classNames = new ArrayList<>(importedPackagePrefixes.size() + 2);
+            classNames.add(packagePrefix + name);
+            for (String importedPackagePrefix : importedPackagePrefixes) {
+                classNames.add(importedPackagePrefix + name);
+            }
+            if (dot >= 0) {
+                classNames.add(name);
+            }
+            return classNames;
+        }
+    }
+
+    private class IndexReferences extends AbstractJavaSourceVisitor<Void> {
+        private final String sourcePath;
+        private final ClassNames classNames;
+
+        private IndexReferences(String sourcePath, ClassNames classNames) {
+            this.sourcePath = sourcePath;
+            this.classNames = classNames;
+        }
+
+        @Override
+        public Void defaultTo(Tree t) {
+            return null;
+        }
+
+        /**
+         * Static imports are field accesses too, so a file that uses a statically imported field is indexed by
+         * its import.
+         */
+        @Override
+        public Void visitFieldAccess(J.FieldAccess fieldAccess) {
+            for (String field : referencedFields(fieldAccess, classNames)) {
+                referencingFilesByField.computeIfAbsent(field, f -> ConcurrentHashMap.newKeySet()).add(sourcePath);
+            }
+            return super.visitFieldAccess(fieldAccess);
+        }
+    }
+
+    private class RenameReferences extends JavaRefactorVisitor {
+        /**
+         * For each simple name that the compilation unit statically imports a renamed field by, what to rename it to.
+         */
+        private final Map<String, String> staticallyImported = new HashMap<>();
+
+        /**
+         * For each simple name that the compilation unit statically imports a renamed field by, the field's type, if
+         * it is known, so that other names that happen to be the same aren't renamed.
+         */
+        private final Map<String, JavaType> staticallyImportedTypes = new HashMap<>();
+
+        /**
+         * For each simple name that the compilation unit statically imports a renamed field by, the ids of the name
+         * scopes that declare a variable with the same name, which shadows the imported field within them.
+         */
+        private final Map<String, Set<UUID>> shadowingScopes = new HashMap<>();
+
+        private ClassNames classNames;
+
+        private RenameReferences() {
+            setCursoringOn();
+        }
+
+        @Override
+        public J visitCompilationUnit(J.CompilationUnit cu) {
+            staticallyImported.clear();
+            staticallyImportedTypes.clear();
+            shadowingScopes.clear();
+            classNames = new ClassNames(cu);
+            for (J.Import anImport : cu.getImports()) {
+                J.FieldAccess qualid = anImport.getQualid();
+                String to = renameOf(qualid);
+                if (to != null) {
+                    staticallyImported.put(qualid.getSimpleName(), to);
+                    JavaType.Class qualifier = TypeUtils.asClass(qualid.getTarget().getType());
+                    JavaType.Class declaring = qualifier == null ? null :
+                            declaringClass(qualifier, qualid.getSimpleName(), new HashSet<>());
+                    JavaType.Var member = declaring == null ? null : member(declaring, qualid.getSimpleName());
+                    if (member != null && member.getType() != null) {
+                        staticallyImportedTypes.put(qualid.getSimpleName(), member.getType());
+                    }
+                }
+            }
+            if (!staticallyImported.isEmpty()) {
+                new ShadowingScopes().visit(cu);
+            }
+            return super.visitCompilationUnit(cu);
+        }
+
+        @Override
+        public J visitFieldAccess(J.FieldAccess fieldAccess) {
+            J.FieldAccess f = refactor(fieldAccess, super::visitFieldAccess);
+
+            // the name of a field access is an identifier, but whether it is renamed depends on the qualifier
+            String to = renameOf(fieldAccess);
+            return f.withName(to == null ? fieldAccess.getName() : fieldAccess.getName().withName(to));
+        }
+
+        @Override
+        public J visitIdentifier(J.Ident ident) {
+            J.Ident i = refactor(ident, super::visitIdentifier);
+            String to = staticallyImported.get(ident.getSimpleName());
+            if (to != null && !(ident.getType() instanceof JavaType.Method) && !isShadowed(ident.getSimpleName())) {
+                JavaType fieldType = staticallyImportedTypes.get(ident.getSimpleName());
+                if (fieldType == null || fieldType.equals(ident.getType())) {
+                    i = i.withName(to);
+                }
+            }
+            return i;
+        }
+
+        /**
+         * @return Whether a variable declared in a scope enclosing the identifier being visited has the name.
+         */
+        private boolean isShadowed(String name) {
+            Set<UUID> scopes = shadowingScopes.get(name);
+            if (scopes == null) {
+                return false;
+            }
+            for (Cursor c = getCursor(); c != null; c = c.getParent()) {
+                if (scopes.contains(c.getTree().getId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Nullable
+        private String renameOf(J.FieldAccess fieldAccess) {
+            for (String field : referencedFields(fieldAccess, classNames)) {
+                String to = renames.get(field);
+                if (to != null) {
+                    return to;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Finds the name scopes that declare variables with the names of statically imported fields.
+         */
+        private class ShadowingScopes extends AbstractJavaSourceVisitor<Void> {
+            @Nullable
+            private Tree scope;
+
+            @Override
+            public Void defaultTo(Tree t) {
+                return null;
+            }
+
+            @Override
+            public Void visit(@Nullable Tree tree) {
+                if (!(tree instanceof J.Block || tree instanceof J.MethodDecl || tree instanceof J.Lambda ||
+                        tree instanceof J.Try || tree instanceof J.ForLoop || tree instanceof J.ForEachLoop)) {
+                    return super.visit(tree);
+                }
+
+                Tree enclosing = scope;
+                scope = tree;
+                try {
+                    return super.visit(tree);
+                } finally {
+                    scope = enclosing;
+                }
+            }
+
+            @Override
+            public Void visitVariable(J.VariableDecls.NamedVar variable) {
+                if (scope != null && staticallyImported.containsKey(variable.getSimpleName())) {
+                    shadowingScopes.computeIfAbsent(variable.getSimpleName(), n -> new HashSet<>()).add(scope.getId());
+                }
+                return super.visitVariable(variable);
+            }
+        }
+    }
+}
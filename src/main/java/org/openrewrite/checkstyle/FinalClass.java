@@ -21,6 +21,7 @@ import org.openrewrite.java.tree.J;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.openrewrite.Formatting.format;
 import static org.openrewrite.Formatting.formatFirstPrefix;
@@ -28,20 +29,25 @@ import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class FinalClass extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.ClassDecl.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.ClassDecl.class);
 
     @Override
-    public boolean isIdempotent() {
-        return false;
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
     }
 
     @Override
     public J visitClassDecl(J.ClassDecl classDecl) {
         J.ClassDecl c = refactor(classDecl, super::visitClassDecl);
 
-        if(classDecl.getBody().getStatements().stream()
-                .noneMatch(s -> s instanceof J.MethodDecl &&
-                        ((J.MethodDecl) s).isConstructor() &&
-                        !((J.MethodDecl) s).hasModifier("private"))) {
+        if (c.getModifiers().stream().noneMatch(m -> m instanceof J.Modifier.Final) &&
+                !getClassSummary(classDecl).hasNonPrivateConstructor()) {
             List<J.Modifier> modifiers = new ArrayList<>(c.getModifiers());
 
             int insertPosition = 0;
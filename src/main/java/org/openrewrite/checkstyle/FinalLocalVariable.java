@@ -17,19 +17,32 @@ package org.openrewrite.checkstyle;
 
 import org.openrewrite.Tree;
 import org.openrewrite.AutoConfigure;
-import org.openrewrite.java.search.FindReferencesToVariable;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AbstractJavaSourceVisitor;
+import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 import static org.openrewrite.Formatting.*;
 import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class FinalLocalVariable extends CheckstyleRefactorVisitor {
-    public FinalLocalVariable() {
-        setCursoringOn();
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.VariableDecls.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.VariableDecls.class);
+
+    @Nullable
+    private Assignments assignments;
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
     }
 
     @Override
@@ -37,14 +50,21 @@ public class FinalLocalVariable extends CheckstyleRefactorVisitor {
 
         J.VariableDecls mv = refactor(multiVariable, super::visitMultiVariable);
 
-        Tree variableScope = getCursor().getParentOrThrow().getParentOrThrow().getTree();
+        ParentIndex parents = getParentIndex();
+        Tree variableScope = parents.getParentOrThrow(parents.getParentOrThrow(multiVariable));
         if (variableScope instanceof J.ClassDecl) {
             // we don't care about fields here
             return mv;
         }
 
+        J.CompilationUnit cu = parents.firstEnclosing(multiVariable, J.CompilationUnit.class);
+        if (assignments == null || assignments.cu != cu) {
+            assignments = new Assignments(cu);
+        }
+        Assignments a = assignments;
+
         if (!multiVariable.hasModifier("final") && multiVariable.getVars().stream()
-                .anyMatch(variable -> new FindReferencesToVariable(variable.getName()).visit(variableScope).size() +
+                .anyMatch(variable -> a.count(variableScope, variable.getSimpleName()) +
                         (variable.getInitializer() == null ? -1 : 0) <= 0)) {
             List<J.Modifier> modifiers = new ArrayList<>();
             modifiers.add(new J.Modifier.Final(randomId(), mv.getTypeExpr() == null ? EMPTY :
@@ -56,4 +76,120 @@ public class FinalLocalVariable extends CheckstyleRefactorVisitor {
 
         return mv;
     }
+
+    /**
+     * The assignments, compound assignments, increments and decrements of every variable of a compilation unit by
+     * name, recorded in one traversal, along with the range of them that falls within each tree that encloses a
+     * variable declaration. How many times a variable is assigned within the scope it is declared in is then two
+     * binary searches, however many variables the scope declares.
+     */
+    private static class Assignments {
+        private final J.CompilationUnit cu;
+
+        /**
+         * For each name, the positions in the order of all assignments of the compilation unit at which it is assigned.
+         */
+        private final Map<String, int[]> positionsByName = new HashMap<>();
+        private final Map<String, Integer> countByName = new HashMap<>();
+
+        /**
+         * For each tree that encloses a variable declaration, the positions of the first assignment in it and
+         * of the first assignment after it.
+         */
+        private final Map<UUID, int[]> rangeByScope = new HashMap<>();
+
+        private Assignments(J.CompilationUnit cu) {
+            this.cu = cu;
+            new Record().visit(cu);
+        }
+
+        int count(Tree scope, String name) {
+            int[] range = rangeByScope.get(scope.getId());
+            int[] positions = positionsByName.get(name);
+            if (range == null || positions == null) {
+                return 0;
+            }
+            int size = countByName.get(name);
+            return insertionPoint(positions, size, range[1]) - insertionPoint(positions, size, range[0]);
+        }
+
+        private static int insertionPoint(int[] positions, int size, int position) {
+            int i = Arrays.binarySearch(positions, 0, size, position);
+            return i < 0 ? -i - 1 : i;
+        }
+
+        private class Record extends AbstractJavaSourceVisitor<Void> {
+            private final Deque<Tree> path = new ArrayDeque<>();
+            private final Deque<Integer> starts = new ArrayDeque<>();
+            private final Set<UUID> scopes = new HashSet<>();
+            private int position;
+
+            @Override
+            public Void defaultTo(Tree t) {
+                return null;
+            }
+
+            @Override
+            public Void visit(@Nullable Tree tree) {
+                if (tree == null) {
+                    return null;
+                }
+
+                if (tree instanceof J.VariableDecls && path.size() >= 2) {
+                    Iterator<Tree> ancestors = path.iterator();
+                    ancestors.next();
+                    scopes.add(ancestors.next().getId());
+                }
+
+                path.push(tree);
+                starts.push(position);
+                try {
+                    return super.visit(tree);
+                } finally {
+                    path.pop();
+                    int start = starts.pop();
+                    if (scopes.contains(tree.getId())) {
+                        rangeByScope.put(tree.getId(), new int[]{start, position});
+                    }
+                }
+            }
+
+            @Override
+            public Void visitAssign(J.Assign assign) {
+                assigned(assign.getVariable());
+                return super.visitAssign(assign);
+            }
+
+            @Override
+            public Void visitAssignOp(J.AssignOp assignOp) {
+                assigned(assignOp.getVariable());
+                return super.visitAssignOp(assignOp);
+            }
+
+            @Override
+            public Void visitUnary(J.Unary unary) {
+                J.Unary.Operator op = unary.getOperator();
+                if (op instanceof J.Unary.Operator.PreIncrement || op instanceof J.Unary.Operator.PreDecrement ||
+                        op instanceof J.Unary.Operator.PostIncrement || op instanceof J.Unary.Operator.PostDecrement) {
+                    assigned(unary.getExpr());
+                }
+                return super.visitUnary(unary);
+            }
+
+            private void assigned(Expression variable) {
+                if (variable instanceof J.Ident) {
+                    String name = ((J.Ident) variable).getSimpleName();
+                    int size = countByName.getOrDefault(name, 0);
+                    int[] positions = positionsByName.get(name);
+                    if (positions == null || positions.length == size) {
+                        positions = positions == null ? new int[4] : Arrays.copyOf(positions, size * 2);
+                        positionsByName.put(name, positions);
+                    }
+                    positions[size] = position;
+                    countByName.put(name, size + 1);
+                }
+                position++;
+            }
+        }
+    }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.RefactorVisitor;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaRefactorVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Runs a set of checks in a single traversal of each compilation unit, rather than one traversal per check.
+ * <p>
+ * Every node is visited once. Its children are visited first, and then the node is handed to each check in
+ * the order the checks were given, each check seeing the result of the ones before it. Just as when a check
+ * runs on its own, a check sees a node only after its children have been fixed, but here they have been
+ * fixed by every check. The {@link StructuralEdits} that the checks record are applied together right after
+ * the traversal, and then visitors that checks queue with {@code andThen} run, in the order of the checks
+ * that queued them.
+ * <p>
+ * A node is only handed to the checks that consume its kind, and when a {@link NodeKindCensus} is given,
+ * subtrees that contain none of the kinds that the active checks consume aren't visited at all.
+ * <p>
+ * The checks share one {@link ParentIndex} and one {@link LineMap} of the compilation unit as it was before
+ * the traversal, and the {@link SwitchModels} of its switches and {@link ClassSummaries} of its classes.
+ * <p>
+ * A check that is fused can't also be run on its own until it is fused into another visitor.
+ */
+public class FusedCheckstyleVisitor extends JavaRefactorVisitor {
+    private final List<CheckstyleRefactorVisitor> checks;
+
+    /**
+     * The checks that are not suppressed for the compilation unit being visited.
+     */
+    private List<CheckstyleRefactorVisitor> active = emptyList();
+
+    /**
+     * Indices into {@link #active} of the checks that changed the compilation unit being visited.
+     */
+    private final BitSet changed = new BitSet();
+
+    /**
+     * For each class of node, which of the {@link #active} checks consume it.
+     */
+    private final Map<Class<?>, boolean[]> consumersByClass = new HashMap<>();
+
+    @Nullable
+    private NodeKindCensus census;
+
+    private long activeMask = NodeKindCensus.ANY;
+
+    private final ParentIndex parentIndex = new ParentIndex();
+
+    private final LineMap lineMap = new LineMap();
+
+    private final SwitchModels switchModels = new SwitchModels();
+
+    private final ClassSummaries classSummaries = new ClassSummaries();
+
+    @Nullable
+    private StructuralEdits edits;
+
+    private final Set<String> rulesThatMadeChanges = new LinkedHashSet<>();
+
+    @Nullable
+    private UUID lastCompilationUnit;
+
+    @Nullable
+    private Cursor cursor;
+
+    private long nodesVisited;
+
+    public FusedCheckstyleVisitor(Collection<? extends CheckstyleRefactorVisitor> checks) {
+        this.checks = new ArrayList<>(checks);
+        for (CheckstyleRefactorVisitor check : checks) {
+            check.fuseInto(this);
+            check.shareParentIndex(parentIndex);
+            check.shareLineMap(lineMap);
+            check.shareSwitchModels(switchModels);
+            check.shareClassSummaries(classSummaries);
+        }
+    }
+
+    @Override
+    public J visit(@Nullable Tree tree) {
+        if (tree == null) {
+            return null;
+        }
+        if (census != null && !(tree instanceof J.CompilationUnit) && !census.mayContain(tree, activeMask)) {
+            return (J) tree;
+        }
+
+        Cursor parent = cursor;
+        cursor = new Cursor(parent, tree);
+        nodesVisited++;
+
+        try {
+            J t = tree.accept(this);
+            for (int i = 0; i < active.size() && t != null; i++) {
+                // a check may have replaced the node with one of another kind
+                if (!consumers(t.getClass())[i]) {
+                    continue;
+                }
+                J before = t;
+                t = t.accept(active.get(i));
+                if (t != before) {
+                    changed.set(i);
+                }
+            }
+
+            if (tree instanceof J.CompilationUnit) {
+                for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                    rulesThatMadeChanges.add(active.get(i).getClass().getSimpleName());
+                }
+            }
+
+            return t;
+        } finally {
+            cursor = parent;
+        }
+    }
+
+    @Override
+    public Cursor getCursor() {
+        return cursor;
+    }
+
+    @Override
+    public J visitCompilationUnit(J.CompilationUnit cu) {
+        if (!cu.getId().equals(lastCompilationUnit)) {
+            lastCompilationUnit = cu.getId();
+            rulesThatMadeChanges.clear();
+        }
+
+        changed.clear();
+        consumersByClass.clear();
+        parentIndex.index(cu);
+        lineMap.index(cu);
+        switchModels.index(cu);
+        classSummaries.index(cu);
+        active = new ArrayList<>(checks.size());
+        activeMask = 0;
+        for (CheckstyleRefactorVisitor check : checks) {
+            if (!check.isSuppressed(cu)) {
+                active.add(check);
+                activeMask |= census == null ? NodeKindCensus.ANY : census.maskOf(check.getConsumedKinds());
+
+                // lets each check set up its per-compilation unit state, e.g. its formatter,
+                // without descending into the tree
+                cu.accept(check);
+            }
+        }
+
+        return super.visitCompilationUnit(cu);
+    }
+
+    /**
+     * @return For each of the {@link #active} checks, whether it consumes this class of node. Every check sees the
+     * compilation unit, so that checks can complete any per-compilation unit work there.
+     */
+    private boolean[] consumers(Class<?> nodeClass) {
+        return consumersByClass.computeIfAbsent(nodeClass, c -> {
+            boolean[] consumers = new boolean[active.size()];
+            for (int i = 0; i < active.size(); i++) {
+                consumers[i] = J.CompilationUnit.class.equals(c) || consumes(active.get(i), c);
+            }
+            return consumers;
+        });
+    }
+
+    private static boolean consumes(CheckstyleRefactorVisitor check, Class<?> nodeClass) {
+        Set<Class<? extends J>> consumed = check.getConsumedKinds();
+        if (consumed.isEmpty()) {
+            return true;
+        }
+        for (Class<? extends J> kind : consumed) {
+            if (kind.isAssignableFrom(nodeClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void useCensus(@Nullable NodeKindCensus census) {
+        this.census = census;
+    }
+
+    @Override
+    public List<RefactorVisitor<J>> andThen() {
+        List<RefactorVisitor<J>> andThen = new ArrayList<>(super.andThen());
+        for (CheckstyleRefactorVisitor check : active) {
+            andThen.addAll(check.andThen());
+        }
+        return andThen;
+    }
+
+    /**
+     * @return The edits that all the checks record in this traversal, to apply together once it is done.
+     */
+    StructuralEdits edits() {
+        if (edits == null) {
+            edits = new StructuralEdits();
+            andThen(edits);
+        }
+        return edits;
+    }
+
+    @Override
+    public void next() {
+        edits = null;
+        super.next();
+        for (CheckstyleRefactorVisitor check : checks) {
+            check.next();
+        }
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        for (CheckstyleRefactorVisitor check : checks) {
+            if (!check.isIdempotent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The simple names of the checks that changed the most recently visited compilation unit,
+     * over all the rounds that it has been visited in.
+     */
+    public Set<String> getRulesThatMadeChanges() {
+        return rulesThatMadeChanges;
+    }
+
+    /**
+     * @return The number of nodes visited so far. Visiting a compilation unit with a fused visitor visits
+     * each node once, where running the same checks one at a time visits each node once per check.
+     */
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+}
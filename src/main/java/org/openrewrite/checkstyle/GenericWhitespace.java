@@ -20,15 +20,23 @@ import org.openrewrite.AutoConfigure;
 import org.openrewrite.java.tree.J;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.openrewrite.checkstyle.WhitespaceChecks.*;
 
 @AutoConfigure
 public class GenericWhitespace extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.TypeParameters.class, J.TypeParameter.class);
+
     public GenericWhitespace() {
         setCursoringOn();
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitTypeParameters(J.TypeParameters typeParams) {
         J.TypeParameters t = refactor(typeParams, super::visitTypeParameters);
@@ -21,25 +21,24 @@ import org.openrewrite.checkstyle.policy.Token;
 import org.openrewrite.AutoConfigure;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.AbstractJavaSourceVisitor;
-import org.openrewrite.java.JavaRefactorVisitor;
 import org.openrewrite.java.JavaSourceVisitor;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
-import static org.openrewrite.java.tree.TypeUtils.getVisibleSupertypeMembers;
 
 @AutoConfigure
 public class HiddenField extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.ClassDecl.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.VariableDecls.NamedVar.class, J.Ident.class);
+
     private static final Pattern NAME_PATTERN = Pattern.compile("(.+)(\\d+)");
     private static final Set<Token> DEFAULT_TOKENS = Stream.of(
             Token.VARIABLE_DEF,
@@ -56,9 +55,18 @@ public class HiddenField extends CheckstyleRefactorVisitor {
     private boolean ignoreAbstractMethods;
     private Set<Token> tokens;
 
-    public HiddenField() {
-        setCursoringOn();
-    }
+    /**
+     * The names that renames recorded in this traversal give to variables, by variable id.
+     */
+    private final Map<UUID, String> renames = new HashMap<>();
+
+    private SupertypeMemberCache supertypeMemberCache = new SupertypeMemberCache();
+
+    /**
+     * The names declared in each scope of the compilation unit being renamed in, including those given by renames.
+     */
+    @Nullable
+    private NameScopes names;
 
     @Override
     protected void configure(Module m) {
@@ -70,180 +78,330 @@ public class HiddenField extends CheckstyleRefactorVisitor {
         this.tokens = m.propAsTokens(Token.class, DEFAULT_TOKENS);
     }
 
+    /**
+     * Share the supertype members that this check looks up with the other instances of it in the same run, e.g. one
+     * per thread.
+     */
+    public void setSupertypeMemberCache(SupertypeMemberCache supertypeMemberCache) {
+        this.supertypeMemberCache = supertypeMemberCache;
+    }
+
+    @Override
+    public void next() {
+        renames.clear();
+        names = null;
+        super.next();
+    }
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
+    /**
+     * Collects the names declared in the class, in one traversal of it, and then looks up the variables that
+     * shadow each of its fields and each of its visible supertype members by name.
+     */
     @Override
     public J visitClassDecl(J.ClassDecl classDecl) {
-        List<JavaType.Var> visibleSupertypeMembers = getVisibleSupertypeMembers(classDecl.getType());
-        List<J.VariableDecls.NamedVar> shadows = visibleSupertypeMembers.stream()
-                .filter(member -> ignoreFormat == null || !ignoreFormat.matcher(member.getName()).matches())
-                .flatMap(member -> new FindNameShadows(member.getName(), enclosingClass())
-                        .visit(classDecl.getBody()).stream())
-                .collect(toList());
+        Map<String, List<J.VariableDecls.NamedVar>> declarations = new DeclaredNames().visit(classDecl.getBody());
+
+        if (!declarations.isEmpty()) {
+            SupertypeMemberCache.Members supertypeMembers = supertypeMemberCache.getVisibleSupertypeMembers(classDecl.getType());
+            for (JavaType.Var member : supertypeMembers.getVars()) {
+                if (!isIgnoredName(member.getName())) {
+                    for (J.VariableDecls.NamedVar shadow : shadows(null, member.getName(), classDecl, declarations)) {
+                        rename(shadow, supertypeMembers);
+                    }
+                }
+            }
 
-        if (!shadows.isEmpty()) {
-            shadows.forEach(shadow -> andThen(new RenameShadowedName(shadow, visibleSupertypeMembers)));
+            for (J.VariableDecls.NamedVar field : getClassSummary(classDecl).getFields()) {
+                if (!isIgnoredName(field.getSimpleName())) {
+                    for (J.VariableDecls.NamedVar shadow : shadows(field, field.getSimpleName(), classDecl, declarations)) {
+                        rename(shadow, supertypeMembers);
+                    }
+                }
+            }
         }
 
         return super.visitClassDecl(classDecl);
     }
 
-    @Override
-    public J visitVariable(J.VariableDecls.NamedVar variable) {
-        Cursor parent = getCursor()
-                .getParentOrThrow() // J.VariableDecls
-                .getParentOrThrow() // J.Block
-                .getParentOrThrow(); // maybe J.ClassDecl
-
-        if (parent.getTree() instanceof J.ClassDecl && (ignoreFormat == null || !ignoreFormat.matcher(variable.getSimpleName()).matches())) {
-            J.ClassDecl classDecl = parent.getTree();
-            List<J.VariableDecls.NamedVar> shadows = new FindNameShadows(variable, enclosingClass()).visit(enclosingBlock());
-            if (!shadows.isEmpty()) {
-                shadows.forEach(shadow -> andThen(new RenameShadowedName(shadow, getVisibleSupertypeMembers(classDecl.getType()))));
+    private boolean isIgnoredName(String name) {
+        return ignoreFormat != null && ignoreFormat.matcher(name).matches();
+    }
+
+    /**
+     * @param field The field that variables with this name shadow, or null for a supertype member.
+     * @return The variables declared in the class with the name that shadow it.
+     */
+    private List<J.VariableDecls.NamedVar> shadows(@Nullable J.VariableDecls.NamedVar field, String name, J.ClassDecl classDecl,
+                                                   Map<String, List<J.VariableDecls.NamedVar>> declarations) {
+        ParentIndex parents = getParentIndex();
+        List<J.VariableDecls.NamedVar> shadows = new ArrayList<>();
+        for (J.VariableDecls.NamedVar variable : declarations.getOrDefault(name, emptyList())) {
+            // a variable that another check added earlier in a fused traversal isn't in the parent index yet,
+            // and is left for the next round
+            if (variable != field && parents.getParent(variable) != null &&
+                    !isIgnorable(variable, classDecl) && matchesTokens(variable)) {
+                shadows.add(variable);
             }
         }
-
-        return super.visitVariable(variable);
+        return shadows;
     }
 
-    private class FindNameShadows extends AbstractJavaSourceVisitor<List<J.VariableDecls.NamedVar>> {
-        @Nullable
-        private final J.VariableDecls.NamedVar thatLookLike;
+    private boolean isIgnorable(J.VariableDecls.NamedVar variable, J.ClassDecl classDecl) {
+        ParentIndex parents = getParentIndex();
+        Tree variableDecls = parents.getParent(variable);
+        Tree maybeMethodDecl = variableDecls == null ? null : parents.getParent(variableDecls); // maybe J.MethodDecl
+        if (!(maybeMethodDecl instanceof J.MethodDecl)) {
+            return false;
+        }
+        J.MethodDecl methodDecl = (J.MethodDecl) maybeMethodDecl;
+
+        if (ignoreConstructorParameter && methodDecl.isConstructor()) {
+            return true;
+        }
 
-        private final String thatLookLikeName;
-        private final J.ClassDecl enclosingClass;
+        if (ignoreAbstractMethods && methodDecl.hasModifier("abstract")) {
+            return true;
+        }
+
+        String methodName = methodDecl.getSimpleName();
+        return ignoreSetter &&
+                methodName.startsWith("set") &&
+                methodDecl.getReturnTypeExpr() != null &&
+                (setterCanReturnItsClass ?
+                        classDecl.getType().equals(methodDecl.getReturnTypeExpr().getType()) :
+                        JavaType.Primitive.Void.equals(methodDecl.getReturnTypeExpr().getType())) &&
+                (methodName.length() > 3 && variable.getSimpleName().equalsIgnoreCase(methodName.substring(3)));
+    }
+
+    private boolean matchesTokens(J.VariableDecls.NamedVar variable) {
+        ParentIndex parents = getParentIndex();
+        Cursor cursor = null;
+        for (Token token : tokens) {
+            if (token == Token.LAMBDA) {
+                if (parents.getParent(variable) instanceof J.Lambda.Parameters) {
+                    return true;
+                }
+            } else {
+                if (cursor == null) {
+                    cursor = parents.cursor(variable);
+                }
+                if (token.getMatcher().matches(cursor)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        public FindNameShadows(J.VariableDecls.NamedVar thatLookLike, J.ClassDecl enclosingClass) {
-            this.enclosingClass = enclosingClass;
-            this.thatLookLike = thatLookLike;
-            this.thatLookLikeName = thatLookLike.getSimpleName();
-            setCursoringOn();
+    /**
+     * Give the shadow the next name that neither a supertype member nor another variable in its name scope has,
+     * counting the names that variables have been given by renames recorded earlier in this traversal.
+     */
+    private void rename(J.VariableDecls.NamedVar shadow, SupertypeMemberCache.Members supertypeMembers) {
+        ParentIndex parents = getParentIndex();
+        J.CompilationUnit cu = parents.firstEnclosing(shadow, J.CompilationUnit.class);
+        if (cu == null) {
+            return;
+        }
+        if (names == null || !names.isIndexOf(cu)) {
+            names = new NameScopes(cu);
         }
 
-        public FindNameShadows(String thatLookLikeName, J.ClassDecl enclosingClass) {
-            this.thatLookLike = null;
-            this.thatLookLikeName = thatLookLikeName;
-            this.enclosingClass = enclosingClass;
-            setCursoringOn();
+        String name = renames.getOrDefault(shadow.getId(), shadow.getSimpleName());
+        String nextName = nextName(name);
+        while (supertypeMembers.hasName(nextName) || names.isVisibleAt(shadow, nextName, parents)) {
+            nextName = nextName(nextName);
         }
 
+        names.rename(shadow, name, nextName);
+        renames.put(shadow.getId(), nextName);
+        edits().rename(shadow, nextName);
+    }
+
+    private static String nextName(String name) {
+        Matcher nameMatcher = NAME_PATTERN.matcher(name);
+        return nameMatcher.matches() ?
+                nameMatcher.group(1) + (Integer.parseInt(nameMatcher.group(2)) + 1) :
+                name + "1";
+    }
+
+    /**
+     * The variables declared in a class body, by name, including those in inner classes that share the class's
+     * name scope.
+     */
+    private static class DeclaredNames extends AbstractJavaSourceVisitor<Map<String, List<J.VariableDecls.NamedVar>>> {
+        private final Map<String, List<J.VariableDecls.NamedVar>> declarations = new HashMap<>();
+
         @Override
-        public List<J.VariableDecls.NamedVar> defaultTo(Tree t) {
-            return emptyList();
+        public Map<String, List<J.VariableDecls.NamedVar>> defaultTo(Tree t) {
+            return declarations;
         }
 
         @Override
-        public List<J.VariableDecls.NamedVar> visitClassDecl(J.ClassDecl classDecl) {
+        public Map<String, List<J.VariableDecls.NamedVar>> visitClassDecl(J.ClassDecl classDecl) {
             // don't go into static inner classes, interfaces, or enums which have a different name scope
             if (!(classDecl.getKind() instanceof J.ClassDecl.Kind.Class) || classDecl.hasModifier("static")) {
-                return emptyList();
+                return declarations;
             }
             return super.visitClassDecl(classDecl);
         }
 
         @Override
-        public List<J.VariableDecls.NamedVar> visitVariable(J.VariableDecls.NamedVar variable) {
-            List<J.VariableDecls.NamedVar> shadows = super.visitVariable(variable);
+        public Map<String, List<J.VariableDecls.NamedVar>> visitVariable(J.VariableDecls.NamedVar variable) {
+            declarations.computeIfAbsent(variable.getSimpleName(), n -> new ArrayList<>(1)).add(variable);
+            return super.visitVariable(variable);
+        }
+    }
 
-            Tree maybeMethodDecl = getCursor()
-                    .getParentOrThrow() // J.VariableDecls
-                    .getParentOrThrow() // maybe J.MethodDecl
-                    .getTree();
+    /**
+     * The names of the variables declared in each name scope of a compilation unit, and in each scope along with
+     * the scopes nested in it, indexed in one traversal, so that whether a name is already taken where a variable
+     * is declared is a lookup per enclosing scope rather than a traversal of the compilation unit.
+     */
+    private static class NameScopes {
+        private final J.CompilationUnit cu;
+        private final Map<UUID, Map<String, Set<UUID>>> namesByScope = new HashMap<>();
+
+        /**
+         * The names declared in each scope or in the scopes nested in it, short of a static or non-class type
+         * declaration.
+         */
+        private final Map<UUID, Map<String, Set<UUID>>> namesInAndBelowScope = new HashMap<>();
+
+        /**
+         * The scopes that a variable's name is counted in by {@link #namesInAndBelowScope}, innermost first.
+         */
+        private final Map<UUID, List<UUID>> scopesByVariable = new HashMap<>();
+
+        private NameScopes(J.CompilationUnit cu) {
+            this.cu = cu;
+            new Index().visit(cu);
+        }
 
-            boolean isIgnorableConstructorParam = ignoreConstructorParameter;
-            if (isIgnorableConstructorParam) {
-                isIgnorableConstructorParam = maybeMethodDecl instanceof J.MethodDecl && ((J.MethodDecl) maybeMethodDecl).isConstructor();
-            }
+        boolean isIndexOf(J.CompilationUnit cu) {
+            return this.cu == cu;
+        }
 
-            boolean isIgnorableSetter = ignoreSetter;
-            if (isIgnorableSetter &= maybeMethodDecl instanceof J.MethodDecl) {
-                J.MethodDecl methodDecl = (J.MethodDecl) maybeMethodDecl;
-                String methodName = methodDecl.getSimpleName();
-
-                isIgnorableSetter = methodName.startsWith("set") &&
-                        methodDecl.getReturnTypeExpr() != null &&
-                        (setterCanReturnItsClass ?
-                                enclosingClass.getType().equals(methodDecl.getReturnTypeExpr().getType()) :
-                                JavaType.Primitive.Void.equals(methodDecl.getReturnTypeExpr().getType())) &&
-                        (methodName.length() > 3 && variable.getSimpleName().equalsIgnoreCase(methodName.substring(3)));
+        /**
+         * @return Whether another variable with the name is declared in a scope that encloses the variable, or in a
+         * scope nested in the variable's own scope, without a static or non-class type declaration in between.
+         */
+        boolean isVisibleAt(J.VariableDecls.NamedVar variable, String name, ParentIndex parents) {
+            List<UUID> scopes = scopesByVariable.get(variable.getId());
+            if (scopes != null && isDeclaredByAnother(namesInAndBelowScope.get(scopes.get(0)), name, variable)) {
+                return true;
             }
 
-            boolean isIgnorableAbstractMethod = ignoreAbstractMethods;
-            if (isIgnorableAbstractMethod) {
-                isIgnorableAbstractMethod = maybeMethodDecl instanceof J.MethodDecl && ((J.MethodDecl) maybeMethodDecl).hasModifier("abstract");
-            }
+            for (Tree t = variable; t != null; t = parents.getParent(t)) {
+                if (t instanceof J.ClassDecl) {
+                    J.ClassDecl classDecl = (J.ClassDecl) t;
+                    if (!(classDecl.getKind() instanceof J.ClassDecl.Kind.Class) || classDecl.hasModifier("static")) {
+                        return false;
+                    }
+                }
 
-            if (variable != thatLookLike &&
-                    !isIgnorableSetter &&
-                    !isIgnorableConstructorParam &&
-                    !isIgnorableAbstractMethod &&
-                    variable.getSimpleName().equals(thatLookLikeName) &&
-                    tokens.stream().anyMatch(t -> t.equals(Token.LAMBDA) ?
-                            getCursor().getParentOrThrow().getTree() instanceof J.Lambda.Parameters :
-                            t.getMatcher().matches(getCursor()))) {
-                shadows.add(variable);
+                if (isDeclaredByAnother(namesByScope.get(t.getId()), name, variable)) {
+                    return true;
+                }
             }
-            return shadows;
+            return false;
         }
-    }
 
-    private static class ShadowsName extends AbstractJavaSourceVisitor<Boolean> {
-        private final Cursor scope;
-        private final String name;
+        private static boolean isDeclaredByAnother(@Nullable Map<String, Set<UUID>> names, String name,
+                                                   J.VariableDecls.NamedVar variable) {
+            Set<UUID> declared = names == null ? null : names.get(name);
+            return declared != null && (declared.size() > 1 || !declared.contains(variable.getId()));
+        }
 
-        private ShadowsName(Cursor scope, String name) {
-            this.scope = scope;
-            this.name = name;
-            setCursoringOn();
+        void rename(J.VariableDecls.NamedVar variable, String from, String to) {
+            List<UUID> scopes = scopesByVariable.get(variable.getId());
+            if (scopes != null) {
+                rename(namesByScope.get(scopes.get(0)), variable, from, to);
+                for (UUID scope : scopes) {
+                    rename(namesInAndBelowScope.get(scope), variable, from, to);
+                }
+            }
         }
 
-        @Override
-        public Boolean defaultTo(Tree t) {
-            return false;
+        private static void rename(Map<String, Set<UUID>> names, J.VariableDecls.NamedVar variable, String from, String to) {
+            Set<UUID> declared = names.get(from);
+            if (declared != null) {
+                declared.remove(variable.getId());
+            }
+            names.computeIfAbsent(to, n -> new HashSet<>(2)).add(variable.getId());
         }
 
-        @Override
-        public Boolean visitVariable(J.VariableDecls.NamedVar variable) {
-            return (variable != scope.getTree() &&
-                    isInSameNameScope(scope) &&
-                    variable.getSimpleName().equals(name)
-            ) || super.visitVariable(variable);
+        private static boolean isNameScope(Tree t) {
+            return t instanceof J.Block || t instanceof J.MethodDecl || t instanceof J.Try ||
+                    t instanceof J.ForLoop || t instanceof J.ForEachLoop;
         }
-    }
 
-    private static class RenameShadowedName extends JavaRefactorVisitor {
-        private final J.VariableDecls.NamedVar scope;
-        private final List<JavaType.Var> supertypeMembers;
+        private class Index extends AbstractJavaSourceVisitor<Void> {
+            /**
+             * The scopes enclosing the node being visited, innermost first, up to the nearest static or non-class
+             * type declaration.
+             */
+            private LinkedList<UUID> scopes = new LinkedList<>();
 
-        public RenameShadowedName(J.VariableDecls.NamedVar scope, List<JavaType.Var> supertypeMembers) {
-            this.scope = scope;
-            this.supertypeMembers = supertypeMembers;
-            setCursoringOn();
-        }
+            @Override
+            public Void defaultTo(Tree t) {
+                return null;
+            }
 
-        @Override
-        public J visitVariable(J.VariableDecls.NamedVar variable) {
-            J.VariableDecls.NamedVar v = refactor(variable, super::visitVariable);
-
-            if (scope.isScope(variable)) {
-                String nextName = nextName(v.getSimpleName());
-                while (matchesSupertypeMember(nextName) ||
-                        new ShadowsName(getCursor(), nextName).visit(enclosingCompilationUnit())) {
-                    nextName = nextName(nextName);
+            @Override
+            public Void visit(@Nullable Tree tree) {
+                if (tree == null || !isNameScope(tree)) {
+                    return super.visit(tree);
+                }
+
+                scopes.addFirst(tree.getId());
+                try {
+                    return super.visit(tree);
+                } finally {
+                    scopes.removeFirst();
                 }
-                v = v.withName(v.getName().withName(nextName));
             }
 
-            return v;
-        }
+            @Override
+            public Void visitClassDecl(J.ClassDecl classDecl) {
+                if (classDecl.getKind() instanceof J.ClassDecl.Kind.Class && !classDecl.hasModifier("static")) {
+                    return super.visitClassDecl(classDecl);
+                }
 
-        private boolean matchesSupertypeMember(String nextName) {
-            return supertypeMembers.stream().anyMatch(m -> m.getName().equals(nextName));
-        }
+                LinkedList<UUID> enclosing = scopes;
+                scopes = new LinkedList<>();
+                try {
+                    return super.visitClassDecl(classDecl);
+                } finally {
+                    scopes = enclosing;
+                }
+            }
 
-        private String nextName(String name) {
-            Matcher nameMatcher = NAME_PATTERN.matcher(name);
-            return nameMatcher.matches() ?
-                    nameMatcher.group(1) + (Integer.parseInt(nameMatcher.group(2)) + 1) :
-                    name + "1";
+            @Override
+            public Void visitVariable(J.VariableDecls.NamedVar variable) {
+                if (!scopes.isEmpty()) {
+                    namesByScope.computeIfAbsent(scopes.getFirst(), id -> new HashMap<>())
+                            .computeIfAbsent(variable.getSimpleName(), n -> new HashSet<>(2))
+                            .add(variable.getId());
+                    for (UUID scope : scopes) {
+                        namesInAndBelowScope.computeIfAbsent(scope, id -> new HashMap<>())
+                                .computeIfAbsent(variable.getSimpleName(), n -> new HashSet<>(2))
+                                .add(variable.getId());
+                    }
+                    scopesByVariable.put(variable.getId(), new ArrayList<>(scopes));
+                }
+                return super.visitVariable(variable);
+            }
         }
     }
 }
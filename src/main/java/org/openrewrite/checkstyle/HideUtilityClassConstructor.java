@@ -19,22 +19,31 @@ import org.openrewrite.AutoConfigure;
 import org.openrewrite.java.tree.J;
 
 import java.util.List;
+import java.util.Set;
 
 import static java.util.stream.Collectors.toList;
 import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class HideUtilityClassConstructor extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.ClassDecl.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.MethodDecl.class);
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
 
     @Override
     public J visitClassDecl(J.ClassDecl classDecl) {
         J.ClassDecl c = refactor(classDecl, super::visitClassDecl);
 
-        if (classDecl.getBody().getStatements().stream()
-                .allMatch(s -> s instanceof J.MethodDecl && (
-                        ((J.MethodDecl) s).isConstructor() ||
-                                ((J.MethodDecl) s).hasModifier("static"))
-                )) {
+        if (getClassSummary(classDecl).hasOnlyConstructorsAndStaticMethods()) {
             c = c.withBody(c.getBody().withStatements(c.getBody().getStatements().stream().map(s -> {
                 J.MethodDecl ctor = (J.MethodDecl) s;
 
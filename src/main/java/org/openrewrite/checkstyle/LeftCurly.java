@@ -21,7 +21,6 @@ import org.openrewrite.Tree;
 import org.openrewrite.checkstyle.policy.LeftCurlyPolicy;
 import org.openrewrite.checkstyle.policy.Token;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.utilities.SpansMultipleLines;
 
 import java.util.Set;
 import java.util.stream.Stream;
@@ -30,6 +29,8 @@ import static java.util.stream.Collectors.toSet;
 
 @AutoConfigure
 public class LeftCurly extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.Block.class);
+
     private static final Set<Token> DEFAULT_TOKENS = Stream.of(
             Token.ANNOTATION_DEF,
             Token.CLASS_DEF,
@@ -74,6 +75,11 @@ public class LeftCurly extends CheckstyleRefactorVisitor {
         this.tokens = m.propAsTokens(Token.class, DEFAULT_TOKENS);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitBlock(J.Block<J> block) {
         J.Block<J> b = refactor(block, super::visitBlock);
@@ -81,7 +87,7 @@ public class LeftCurly extends CheckstyleRefactorVisitor {
         Cursor containing = getCursor().getParentOrThrow();
 
         boolean spansMultipleLines = LeftCurlyPolicy.NLOW.equals(option) ?
-                new SpansMultipleLines(containing.getTree(), block).visit((Tree) containing.getTree()) : false;
+                getLineMap().spansMultipleLines(containing.getTree(), block) : false;
 
         if (!satisfiesPolicy(option, block, containing.getTree(), spansMultipleLines)) {
             b = formatCurly(option, b, spansMultipleLines, containing);
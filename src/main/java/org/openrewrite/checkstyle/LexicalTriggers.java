@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Matches the {@link CheckstyleRefactorVisitor#getLexicalTriggers() lexical triggers} of a set of checks
+ * against the raw bytes of a source file in one pass (an Aho-Corasick automaton over bytes), so that
+ * files and checks that could not possibly produce a fix can be skipped before the file is even parsed.
+ * <p>
+ * Triggers are matched as UTF-8 byte sequences, which is also correct for any ASCII-compatible source encoding.
+ */
+public final class LexicalTriggers {
+    private final List<CheckstyleRefactorVisitor> visitors;
+
+    /**
+     * Visitors that don't declare any trigger, and so apply to every source file.
+     */
+    private final BitSet alwaysApplicable = new BitSet();
+
+    /**
+     * Visitors that declare at least one trigger.
+     */
+    private final BitSet triggered = new BitSet();
+
+    /**
+     * Complete transition table of the automaton, indexed by state and then by unsigned byte value.
+     */
+    private final int[][] transitions;
+
+    /**
+     * The visitors whose triggers end at each state, including those inherited along failure links.
+     */
+    private final BitSet[] matches;
+
+    private LexicalTriggers(List<CheckstyleRefactorVisitor> visitors) {
+        this.visitors = visitors;
+
+        List<int[]> trie = new ArrayList<>();
+        List<BitSet> trieMatches = new ArrayList<>();
+        trie.add(newState());
+        trieMatches.add(new BitSet());
+
+        for (int i = 0; i < visitors.size(); i++) {
+            Set<String> visitorTriggers = visitors.get(i).getLexicalTriggers();
+            if (visitorTriggers.isEmpty()) {
+                alwaysApplicable.set(i);
+                continue;
+            }
+
+            triggered.set(i);
+            for (String trigger : visitorTriggers) {
+                int state = 0;
+                for (byte b : trigger.getBytes(StandardCharsets.UTF_8)) {
+                    int next = trie.get(state)[b & 0xff];
+                    if (next == -1) {
+                        next = trie.size();
+                        trie.get(state)[b & 0xff] = next;
+                        trie.add(newState());
+                        trieMatches.add(new BitSet());
+                    }
+                    state = next;
+                }
+                trieMatches.get(state).set(i);
+            }
+        }
+
+        this.transitions = trie.toArray(new int[0][]);
+        this.matches = trieMatches.toArray(new BitSet[0]);
+
+        // breadth-first over the trie, turning it into a complete automaton by following failure links
+        int[] failure = new int[transitions.length];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < 256; c++) {
+            int next = transitions[0][c];
+            if (next == -1) {
+                transitions[0][c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state].or(matches[failure[state]]);
+            for (int c = 0; c < 256; c++) {
+                int next = transitions[state][c];
+                if (next == -1) {
+                    transitions[state][c] = transitions[failure[state]][c];
+                } else {
+                    failure[next] = transitions[failure[state]][c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    public static LexicalTriggers compile(Collection<? extends CheckstyleRefactorVisitor> visitors) {
+        return new LexicalTriggers(new ArrayList<>(visitors));
+    }
+
+    /**
+     * @param source The raw bytes of a source file.
+     * @return The checks that could possibly make a change to this source file, in the order they were
+     * compiled in. When empty, the source file doesn't need to be parsed at all.
+     */
+    public List<CheckstyleRefactorVisitor> applicableTo(byte[] source) {
+        return applicableTo(ByteBuffer.wrap(source));
+    }
+
+    /**
+     * @param source The raw bytes of a source file, between the buffer's position and limit. The buffer's
+     *               position is left unchanged.
+     * @return The checks that could possibly make a change to this source file, in the order they were
+     * compiled in. When empty, the source file doesn't need to be parsed at all.
+     */
+    public List<CheckstyleRefactorVisitor> applicableTo(ByteBuffer source) {
+        BitSet applicable = (BitSet) alwaysApplicable.clone();
+
+        if (!triggered.isEmpty()) {
+            BitSet found = new BitSet(visitors.size());
+            int state = 0;
+            for (int i = source.position(); i < source.limit(); i++) {
+                state = transitions[state][source.get(i) & 0xff];
+                if (!matches[state].isEmpty()) {
+                    found.or(matches[state]);
+                    if (found.cardinality() == triggered.cardinality()) {
+                        // every check with a trigger has already been seen, no need to scan the rest of the file
+                        break;
+                    }
+                }
+            }
+            applicable.or(found);
+        }
+
+        List<CheckstyleRefactorVisitor> applicableVisitors = new ArrayList<>(applicable.cardinality());
+        for (int i = applicable.nextSetBit(0); i >= 0; i = applicable.nextSetBit(i + 1)) {
+            applicableVisitors.add(visitors.get(i));
+        }
+        return applicableVisitors;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[256];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AbstractJavaSourceVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.utilities.SpansMultipleLines;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The lines that every node of a compilation unit starts and ends on, counted from the linebreaks in the
+ * prefixes and suffixes of the nodes before it, so that whether a node spans multiple lines, or whether two
+ * nodes are on the same line, can be answered without visiting the node's subtree. The compilation unit is
+ * mapped the first time it is asked about, and shared by the checks that visit the same compilation unit.
+ * <p>
+ * Nodes are looked up by identity, since a node that a check has rebuilt may have been reformatted. Questions
+ * about nodes that aren't part of the mapped compilation unit are answered by visiting them.
+ */
+public class LineMap {
+    private static final int BEFORE_PREFIX = 0;
+    private static final int START = 1;
+    private static final int END = 2;
+    private static final int AFTER_SUFFIX = 3;
+
+    private final Map<Tree, int[]> linesByTree = new IdentityHashMap<>();
+
+    @Nullable
+    private J.CompilationUnit indexed;
+
+    private boolean mapped;
+
+    /**
+     * Map the compilation unit when it is first asked about, unless it is the one already mapped.
+     */
+    public void index(J.CompilationUnit cu) {
+        if (cu == indexed) {
+            return;
+        }
+        indexed = cu;
+        mapped = false;
+        linesByTree.clear();
+    }
+
+    /**
+     * @param tree The tree to check.
+     * @param skip A subtree of the tree whose linebreaks don't count, or null.
+     * @return Whether there are linebreaks in the tree outside of its own prefix and suffix, and outside of the
+     * subtree being skipped, along with its prefix and suffix.
+     */
+    public boolean spansMultipleLines(J tree, @Nullable J skip) {
+        int[] lines = lines(tree);
+        int[] skipped = skip == null ? null : lines(skip);
+        if (lines == null || (skip != null && skipped == null)) {
+            return new SpansMultipleLines(tree, skip).visit(tree);
+        }
+
+        int linebreaks = lines[END] - lines[START];
+        if (skipped != null) {
+            linebreaks -= skipped[AFTER_SUFFIX] - skipped[BEFORE_PREFIX];
+        }
+        return linebreaks > 0;
+    }
+
+    /**
+     * @return Whether both trees start on the same line. Trees that aren't part of the compilation unit aren't
+     * considered to be on the same line as any other.
+     */
+    public boolean onSameLine(J t1, J t2) {
+        int[] lines1 = lines(t1);
+        int[] lines2 = lines(t2);
+        if (lines1 == null || lines2 == null) {
+            return false;
+        }
+        return lines1[START] == lines2[START];
+    }
+
+    @Nullable
+    private int[] lines(Tree tree) {
+        if (!mapped && indexed != null) {
+            mapped = true;
+            new MapLines().visit(indexed);
+        }
+        return linesByTree.get(tree);
+    }
+
+    private static int linebreaks(String whitespace) {
+        int linebreaks = 0;
+        for (int i = 0; i < whitespace.length(); i++) {
+            if (whitespace.charAt(i) == '\n') {
+                linebreaks++;
+            }
+        }
+        return linebreaks;
+    }
+
+    private class MapLines extends AbstractJavaSourceVisitor<Void> {
+        private int line;
+
+        @Override
+        public Void defaultTo(Tree t) {
+            return null;
+        }
+
+        @Override
+        public Void visit(@Nullable Tree tree) {
+            if (tree == null) {
+                return null;
+            }
+
+            int[] lines = new int[4];
+            lines[BEFORE_PREFIX] = line;
+            line += linebreaks(tree.getFormatting().getPrefix());
+            lines[START] = line;
+
+            super.visit(tree);
+            if (tree instanceof J.Block) {
+                line += linebreaks(((J.Block<?>) tree).getEnd().getPrefix());
+            }
+
+            lines[END] = line;
+            line += linebreaks(tree.getFormatting().getSuffix());
+            lines[AFTER_SUFFIX] = line;
+
+            linesByTree.put(tree, lines);
+            return null;
+        }
+    }
+}
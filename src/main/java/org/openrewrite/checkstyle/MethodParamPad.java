@@ -35,6 +35,12 @@ import static java.util.stream.Collectors.toSet;
 
 @AutoConfigure
 public class MethodParamPad extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.MethodDecl.class,
+            J.NewClass.class,
+            J.MethodInvocation.class
+    );
+
     private static final Set<Token> DEFAULT_TOKENS = Stream.of(
             Token.CTOR_DEF, Token.LITERAL_NEW, Token.METHOD_CALL, Token.METHOD_DEF, Token.SUPER_CTOR_CALL, Token.ENUM_CONSTANT_DEF
     ).collect(toSet());
@@ -54,6 +60,11 @@ public class MethodParamPad extends CheckstyleRefactorVisitor {
         this.tokens = m.propAsTokens(Token.class, DEFAULT_TOKENS);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitMethod(MethodDecl method) {
         return maybeFixFormatting(method, super::visitMethod, MethodDecl::getParams, MethodDecl::withParams, Token.METHOD_DEF);
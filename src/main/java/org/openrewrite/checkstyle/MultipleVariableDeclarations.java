@@ -20,6 +20,7 @@ import org.openrewrite.java.tree.J;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
@@ -30,10 +31,23 @@ import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class MultipleVariableDeclarations extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.Block.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.VariableDecls.class);
+
     public MultipleVariableDeclarations() {
         setCursoringOn();
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitBlock(J.Block<J> block) {
         J.Block<J> b = refactor(block, super::visitBlock);
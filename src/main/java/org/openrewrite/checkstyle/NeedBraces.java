@@ -17,12 +17,10 @@ package org.openrewrite.checkstyle;
 
 import org.openrewrite.AutoConfigure;
 import org.openrewrite.Formatting;
-import org.openrewrite.Tree;
 import org.openrewrite.checkstyle.policy.Token;
 import org.openrewrite.java.JavaFormatter;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.Statement;
-import org.openrewrite.java.utilities.SpansMultipleLines;
 
 import java.util.Set;
 import java.util.stream.Stream;
@@ -35,6 +33,15 @@ import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class NeedBraces extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.If.class,
+            J.If.Else.class,
+            J.WhileLoop.class,
+            J.DoWhileLoop.class,
+            J.ForLoop.class
+    );
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.Block.class);
+
     private static final Set<Token> DEFAULT_TOKENS = Stream.of(
             Token.LITERAL_DO, Token.LITERAL_ELSE, Token.LITERAL_FOR, Token.LITERAL_IF, Token.LITERAL_WHILE
     ).collect(toSet());
@@ -54,6 +61,16 @@ public class NeedBraces extends CheckstyleRefactorVisitor {
         this.tokens = m.propAsTokens(Token.class, DEFAULT_TOKENS);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitIf(J.If iff) {
         J.If i = refactor(iff, super::visitIf);
@@ -131,8 +148,7 @@ public class NeedBraces extends CheckstyleRefactorVisitor {
     }
 
     private boolean isNotAllowableSingleLine() {
-        return !allowSingleLineStatement || new SpansMultipleLines(getCursor().getTree(), null)
-                .visit((Tree) getCursor().getTree());
+        return !allowSingleLineStatement || getLineMap().spansMultipleLines(getCursor().getTree(), null);
     }
 
     @SuppressWarnings("ConstantConditions")
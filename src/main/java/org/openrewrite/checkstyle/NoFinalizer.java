@@ -17,27 +17,43 @@ package org.openrewrite.checkstyle;
 
 import org.openrewrite.AutoConfigure;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.JavaType;
 
+import java.util.Set;
+
+import static java.util.Collections.singleton;
 import static java.util.stream.Collectors.toList;
 
 @AutoConfigure
 public class NoFinalizer extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.ClassDecl.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.Block.class);
+
+    @Override
+    public Set<String> getLexicalTriggers() {
+        return singleton("finalize");
+    }
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
 
     @Override
     public J visitClassDecl(J.ClassDecl classDecl) {
         J.ClassDecl c = refactor(classDecl, super::visitClassDecl);
 
-        return classDecl.getMethods().stream()
-                .filter(method -> method.getSimpleName().equals("finalize") &&
-                        method.getReturnTypeExpr() != null &&
-                        JavaType.Primitive.Void.equals(method.getReturnTypeExpr().getType()) &&
-                        method.getParams().getParams().stream().allMatch(p -> p instanceof J.Empty))
-                .findAny()
-                .map(m -> c.withBody(c.getBody().withStatements(c.getBody().getStatements().stream()
-                        .filter(s -> !s.getId().equals(m.getId()))
-                        .collect(toList())))
-                )
-                .orElse(c);
+        J.MethodDecl finalizer = getClassSummary(classDecl).getFinalizer();
+        if (finalizer == null) {
+            return c;
+        }
+
+        return c.withBody(c.getBody().withStatements(c.getBody().getStatements().stream()
+                .filter(s -> !s.getId().equals(finalizer.getId()))
+                .collect(toList())));
     }
 }
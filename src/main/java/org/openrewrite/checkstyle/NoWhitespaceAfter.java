@@ -23,6 +23,7 @@ import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -36,10 +37,27 @@ import static org.openrewrite.Formatting.stripPrefix;
 
 @AutoConfigure
 public class NoWhitespaceAfter extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.TypeCast.class,
+            J.MemberReference.class,
+            J.VariableDecls.class,
+            J.Annotation.class,
+            J.ArrayType.class,
+            J.NewArray.class,
+            J.ArrayAccess.class,
+            J.Unary.class,
+            J.FieldAccess.class,
+            J.MethodInvocation.class
+    );
+
     private static final Set<PunctuationToken> DEFAULT_TOKENS = Stream.of(
             PunctuationToken.ARRAY_INIT, PunctuationToken.AT, PunctuationToken.INC, PunctuationToken.DEC, PunctuationToken.UNARY_MINUS, PunctuationToken.UNARY_PLUS, PunctuationToken.BNOT, PunctuationToken.LNOT, PunctuationToken.DOT, PunctuationToken.ARRAY_DECLARATOR, PunctuationToken.INDEX_OP
     ).collect(toSet());
 
+    private static final Set<PunctuationToken> PREFIX_OPERATORS = EnumSet.of(
+            PunctuationToken.INC, PunctuationToken.DEC, PunctuationToken.UNARY_MINUS, PunctuationToken.UNARY_PLUS, PunctuationToken.BNOT, PunctuationToken.LNOT
+    );
+
     /**
      * Only applies to DOT.
      */
@@ -57,6 +75,11 @@ public class NoWhitespaceAfter extends CheckstyleRefactorVisitor {
         this.tokens = m.propAsTokens(PunctuationToken.class, DEFAULT_TOKENS);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitTypeCast(J.TypeCast typeCast) {
         J.TypeCast t = refactor(typeCast, super::visitTypeCast);
@@ -143,22 +166,10 @@ public class NoWhitespaceAfter extends CheckstyleRefactorVisitor {
     public J visitUnary(J.Unary unary) {
         J.Unary u = refactor(unary, super::visitUnary);
 
-        J.Unary.Operator op = unary.getOperator();
-        if (op instanceof J.Unary.Operator.PreDecrement ||
-                op instanceof J.Unary.Operator.PreIncrement ||
-                op instanceof J.Unary.Operator.Negative ||
-                op instanceof J.Unary.Operator.Positive ||
-                op instanceof J.Unary.Operator.Complement ||
-                op instanceof J.Unary.Operator.Not) {
-
-            if ((tokens.contains(PunctuationToken.DEC) ||
-                    tokens.contains(PunctuationToken.INC) ||
-                    tokens.contains(PunctuationToken.BNOT) ||
-                    tokens.contains(PunctuationToken.LNOT) ||
-                    tokens.contains(PunctuationToken.UNARY_PLUS) ||
-                    tokens.contains(PunctuationToken.UNARY_MINUS)) && WhitespaceChecks.prefixStartsWithNonLinebreakWhitespace(unary.getExpr())) {
-                u = u.withExpr(WhitespaceChecks.stripPrefixUpToLinebreak(u.getExpr()));
-            }
+        PunctuationToken token = PunctuationToken.of(unary.getOperator());
+        if (PREFIX_OPERATORS.contains(token) && tokens.contains(token) &&
+                WhitespaceChecks.prefixStartsWithNonLinebreakWhitespace(unary.getExpr())) {
+            u = u.withExpr(WhitespaceChecks.stripPrefixUpToLinebreak(u.getExpr()));
         }
 
         return u;
@@ -31,7 +31,6 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.openrewrite.Formatting.stripSuffix;
@@ -41,6 +40,24 @@ import static org.openrewrite.checkstyle.policy.PunctuationToken.*;
 
 @AutoConfigure
 public class NoWhitespaceBefore extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.Package.class,
+            J.Import.class,
+            J.FieldAccess.class,
+            J.MethodDecl.class,
+            J.MethodInvocation.class,
+            Statement.class,
+            J.ForLoop.class,
+            J.VariableDecls.class,
+            J.VariableDecls.NamedVar.class,
+            J.Unary.class,
+            J.TypeParameters.class,
+            J.TypeParameter.class,
+            J.MemberReference.class,
+            J.ForEachLoop.class,
+            J.WhileLoop.class
+    );
+
     private static final Set<PunctuationToken> DEFAULT_TOKENS = Stream.of(
             COMMA, SEMI, POST_INC, POST_DEC, ELLIPSIS
     ).collect(toSet());
@@ -62,6 +79,11 @@ public class NoWhitespaceBefore extends CheckstyleRefactorVisitor {
         this.tokens = m.propAsTokens(PunctuationToken.class, DEFAULT_TOKENS);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitPackage(J.Package pkg) {
         return maybeStripSuffixBefore(pkg, super::visitPackage, SEMI);
@@ -201,10 +223,9 @@ public class NoWhitespaceBefore extends CheckstyleRefactorVisitor {
     @Override
     public J visitUnary(J.Unary unary) {
         J.Unary u = refactor(unary, super::visitUnary);
-        if (whitespaceInPrefix(unary.getOperator()) &&
-                (unary.getOperator() instanceof J.Unary.Operator.PostDecrement ||
-                        unary.getOperator() instanceof J.Unary.Operator.PostIncrement) &&
-                (tokens.contains(POST_DEC) || tokens.contains(POST_INC))) {
+        PunctuationToken token = PunctuationToken.of(unary.getOperator());
+        if ((token == POST_DEC || token == POST_INC) && tokens.contains(token) &&
+                whitespaceInPrefix(unary.getOperator())) {
             u = u.withOperator(stripPrefixUpToLinebreak(u.getOperator()));
         }
         return u;
@@ -255,7 +276,7 @@ public class NoWhitespaceBefore extends CheckstyleRefactorVisitor {
                                                    Function<T, Tree> callSuper,
                                                    PunctuationToken... tokensToMatch) {
         T t = refactor(tree, callSuper);
-        if (stream(tokensToMatch).anyMatch(tokens::contains) && whitespaceInSuffix(tree)) {
+        if (containsAny(tokensToMatch) && whitespaceInSuffix(tree)) {
             t = stripSuffixUpToLinebreak(t);
         }
         return t;
@@ -265,12 +286,21 @@ public class NoWhitespaceBefore extends CheckstyleRefactorVisitor {
                                                    Function<T, Tree> callSuper,
                                                    PunctuationToken... tokensToMatch) {
         T t = refactor(tree, callSuper);
-        if (stream(tokensToMatch).anyMatch(tokens::contains) && whitespaceInPrefix(tree)) {
+        if (containsAny(tokensToMatch) && whitespaceInPrefix(tree)) {
             t = stripPrefixUpToLinebreak(t);
         }
         return t;
     }
 
+    private boolean containsAny(PunctuationToken... tokensToMatch) {
+        for (PunctuationToken token : tokensToMatch) {
+            if (tokens.contains(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean whitespaceInSuffix(@Nullable Tree t) {
         if (t == null) {
             return false;
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AbstractJavaSourceVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.*;
+
+/**
+ * Records which of the kinds of node that a set of checks {@link CheckstyleRefactorVisitor#getConsumedKinds() consume}
+ * occur in a compilation unit, and under which of its nodes, in one traversal of the compilation unit.
+ * <p>
+ * A check none of whose kinds occur in the compilation unit has nothing to fix in it and can be skipped, and
+ * a check that does run can skip any subtree that contains none of its kinds. Since trees are immutable,
+ * what the census records about a subtree holds for as long as the subtree is part of the tree being fixed.
+ * Subtrees that a fix has rebuilt are unknown to the census, and are assumed to contain any kind.
+ */
+public class NodeKindCensus {
+    /**
+     * Stands for a set of kinds that the census can't tell apart from any kind, either because it is empty
+     * or because it contains more kinds than the census has bits for.
+     */
+    static final long ANY = -1L;
+
+    private final List<Class<? extends J>> kinds;
+    private final Map<Class<?>, Long> maskByClass = new HashMap<>();
+    private final Map<Tree, Long> maskBySubtree = new IdentityHashMap<>();
+    private long present;
+
+    private NodeKindCensus(List<Class<? extends J>> kinds) {
+        this.kinds = kinds;
+    }
+
+    public static NodeKindCensus take(J.CompilationUnit cu, Collection<? extends CheckstyleRefactorVisitor> checks) {
+        Set<Class<? extends J>> kinds = new LinkedHashSet<>();
+        for (CheckstyleRefactorVisitor check : checks) {
+            kinds.addAll(check.getConsumedKinds());
+        }
+
+        NodeKindCensus census = new NodeKindCensus(new ArrayList<>(kinds));
+        census.present = census.new Count().visit(cu);
+        return census;
+    }
+
+    /**
+     * @return The bits that stand for the kinds, or {@link #ANY}.
+     */
+    public long maskOf(Set<Class<? extends J>> kinds) {
+        if (kinds.isEmpty()) {
+            return ANY;
+        }
+
+        long mask = 0;
+        for (Class<? extends J> kind : kinds) {
+            int bit = this.kinds.indexOf(kind);
+            if (bit < 0 || bit >= Long.SIZE) {
+                return ANY;
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * @return Whether a node of any of the kinds occurs anywhere in the compilation unit.
+     */
+    public boolean isPresent(long mask) {
+        return mask == ANY || (present & mask) != 0;
+    }
+
+    /**
+     * @return Whether a node of any of the kinds may occur in the tree or among its descendants.
+     */
+    public boolean mayContain(@Nullable Tree tree, long mask) {
+        if (tree == null || mask == ANY) {
+            return true;
+        }
+        Long subtree = maskBySubtree.get(tree);
+        return subtree == null || (subtree & mask) != 0;
+    }
+
+    /**
+     * Records that a check has changed the compilation unit and may have added nodes of the kinds it
+     * produces, which are assumed to be present from then on.
+     */
+    public void produced(Set<Class<? extends J>> produced) {
+        for (Class<? extends J> kind : produced) {
+            for (int bit = 0; bit < kinds.size() && bit < Long.SIZE; bit++) {
+                Class<? extends J> consumed = kinds.get(bit);
+                if (consumed.isAssignableFrom(kind) || kind.isAssignableFrom(consumed)) {
+                    present |= 1L << bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The bits for the kinds that a node of this class is an instance of.
+     */
+    long maskOf(Class<?> nodeClass) {
+        Long mask = maskByClass.get(nodeClass);
+        if (mask == null) {
+            mask = 0L;
+            for (int bit = 0; bit < kinds.size() && bit < Long.SIZE; bit++) {
+                if (kinds.get(bit).isAssignableFrom(nodeClass)) {
+                    mask |= 1L << bit;
+                }
+            }
+            maskByClass.put(nodeClass, mask);
+        }
+        return mask;
+    }
+
+    private class Count extends AbstractJavaSourceVisitor<Long> {
+        @Override
+        public Long defaultTo(Tree t) {
+            return 0L;
+        }
+
+        @Override
+        public Long reduce(Long r1, Long r2) {
+            return r1 | r2;
+        }
+
+        @Override
+        public Long visit(@Nullable Tree tree) {
+            if (tree == null) {
+                return 0L;
+            }
+            long mask = maskOf(tree.getClass()) | super.visit(tree);
+            maskBySubtree.put(tree, mask);
+            return mask;
+        }
+    }
+}
@@ -36,6 +36,17 @@ import static org.openrewrite.checkstyle.policy.OperatorToken.*;
 
 @AutoConfigure
 public class OperatorWrap extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.Binary.class,
+            J.TypeParameter.class,
+            J.InstanceOf.class,
+            J.Ternary.class,
+            J.AssignOp.class,
+            J.MemberReference.class,
+            J.Assign.class,
+            J.VariableDecls.NamedVar.class
+    );
+
     private static final Set<OperatorToken> DEFAULT_TOKENS = Stream.of(
             QUESTION,
             COLON,
@@ -76,30 +87,17 @@ public class OperatorWrap extends CheckstyleRefactorVisitor {
         return Tags.of("policy", option.toString());
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitBinary(J.Binary binary) {
         J.Binary b = refactor(binary, super::visitBinary);
         J.Binary.Operator op = binary.getOperator();
 
-        if ((tokens.contains(DIV) && op instanceof J.Binary.Operator.Division) ||
-                (tokens.contains(STAR) && op instanceof J.Binary.Operator.Multiplication) ||
-                (tokens.contains(PLUS) && op instanceof J.Binary.Operator.Addition) ||
-                (tokens.contains(MINUS) && op instanceof J.Binary.Operator.Subtraction) ||
-                (tokens.contains(MOD) && op instanceof J.Binary.Operator.Modulo) ||
-                (tokens.contains(SR) && op instanceof J.Binary.Operator.RightShift) ||
-                (tokens.contains(SL) && op instanceof J.Binary.Operator.LeftShift) ||
-                (tokens.contains(BSR) && op instanceof J.Binary.Operator.UnsignedRightShift) ||
-                (tokens.contains(EQUAL) && op instanceof J.Binary.Operator.Equal) ||
-                (tokens.contains(NOT_EQUAL) && op instanceof J.Binary.Operator.NotEqual) ||
-                (tokens.contains(GT) && op instanceof J.Binary.Operator.GreaterThan) ||
-                (tokens.contains(GE) && op instanceof J.Binary.Operator.GreaterThanOrEqual) ||
-                (tokens.contains(LT) && op instanceof J.Binary.Operator.LessThan) ||
-                (tokens.contains(LE) && op instanceof J.Binary.Operator.LessThanOrEqual) ||
-                (tokens.contains(BAND) && op instanceof J.Binary.Operator.BitAnd) ||
-                (tokens.contains(BXOR) && op instanceof J.Binary.Operator.BitXor) ||
-                (tokens.contains(BOR) && op instanceof J.Binary.Operator.BitOr) ||
-                (tokens.contains(LAND) && op instanceof J.Binary.Operator.And) ||
-                (tokens.contains(LOR) && op instanceof J.Binary.Operator.Or)) {
+        if (tokens.contains(OperatorToken.of(op))) {
 
             if (option == WrapPolicy.NL) {
                 if (binary.getRight().getFormatting().getPrefix().contains("\n")) {
@@ -208,17 +206,7 @@ public class OperatorWrap extends CheckstyleRefactorVisitor {
         J.AssignOp a = refactor(assignOp, super::visitAssignOp);
         J.AssignOp.Operator op = assignOp.getOperator();
 
-        if ((tokens.contains(PLUS_ASSIGN) && op instanceof J.AssignOp.Operator.Addition) ||
-                (tokens.contains(MINUS_ASSIGN) && op instanceof J.AssignOp.Operator.Subtraction) ||
-                (tokens.contains(STAR_ASSIGN) && op instanceof J.AssignOp.Operator.Multiplication) ||
-                (tokens.contains(DIV_ASSIGN) && op instanceof J.AssignOp.Operator.Division) ||
-                (tokens.contains(MOD_ASSIGN) && op instanceof J.AssignOp.Operator.Modulo) ||
-                (tokens.contains(SR_ASSIGN) && op instanceof J.AssignOp.Operator.RightShift) ||
-                (tokens.contains(SL_ASSIGN) && op instanceof J.AssignOp.Operator.LeftShift) ||
-                (tokens.contains(BSR_ASSIGN) && op instanceof J.AssignOp.Operator.UnsignedRightShift) ||
-                (tokens.contains(BAND_ASSIGN) && op instanceof J.AssignOp.Operator.BitAnd) ||
-                (tokens.contains(BXOR_ASSIGN) && op instanceof J.AssignOp.Operator.BitXor) ||
-                (tokens.contains(BOR_ASSIGN) && op instanceof J.AssignOp.Operator.BitOr)) {
+        if (tokens.contains(OperatorToken.of(op))) {
 
             if (option == WrapPolicy.NL) {
                 if (assignOp.getAssignment().getFormatting().getPrefix().contains("\n")) {
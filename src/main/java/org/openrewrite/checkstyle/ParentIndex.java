@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AbstractJavaSourceVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Statement;
+
+import java.util.*;
+
+/**
+ * The parent of every node of a compilation unit, indexed in one traversal the first time a parent is asked
+ * about and shared by the checks that visit the same compilation unit, so that checks that only need to look a level or two up the tree don't
+ * have to turn on cursoring and allocate a {@link Cursor} for every node they visit.
+ * <p>
+ * Nodes are looked up by id, so a node that a check has rebuilt with changes to its children still finds
+ * the parent it had when the compilation unit was indexed. Like a cursor, the index answers with the
+ * ancestors as they were before the current traversal changed them.
+ */
+public class ParentIndex {
+    private final Map<UUID, Tree> parentById = new HashMap<>();
+
+    /**
+     * The position of each statement in its block, for the blocks whose statements have been asked about.
+     */
+    private final Map<UUID, Integer> positionById = new HashMap<>();
+    private final Set<UUID> positionedBlocks = new HashSet<>();
+
+    @Nullable
+    private J.CompilationUnit indexed;
+
+    private boolean traversed;
+
+    /**
+     * Index the compilation unit when it is first asked about, unless it is the one already indexed.
+     */
+    public void index(J.CompilationUnit cu) {
+        if (cu == indexed) {
+            return;
+        }
+        indexed = cu;
+        traversed = false;
+        parentById.clear();
+        positionById.clear();
+        positionedBlocks.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T extends Tree> T getParent(Tree tree) {
+        return (T) parents().get(tree.getId());
+    }
+
+    public <T extends Tree> T getParentOrThrow(Tree tree) {
+        T parent = getParent(tree);
+        if (parent == null) {
+            throw new IllegalStateException("Expected to find a parent for " + tree.getClass().getSimpleName());
+        }
+        return parent;
+    }
+
+    /**
+     * @return The tree itself, or its nearest ancestor, that is of the kind.
+     */
+    @Nullable
+    public <T extends Tree> T firstEnclosing(Tree tree, Class<T> kind) {
+        Map<UUID, Tree> parents = parents();
+        for (Tree t = tree; t != null; t = parents.get(t.getId())) {
+            if (kind.isInstance(t)) {
+                return kind.cast(t);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The statement after this one in the block that contains it, or null if it is the last statement
+     * of the block or isn't in a block. The statements of a block are numbered the first time one of them is
+     * asked about, so finding the next statement doesn't search the block.
+     */
+    @Nullable
+    public Statement nextStatement(Statement statement) {
+        Tree parent = getParent(statement);
+        if (!(parent instanceof J.Block)) {
+            return null;
+        }
+
+        List<? extends J> statements = ((J.Block<?>) parent).getStatements();
+        if (positionedBlocks.add(parent.getId())) {
+            for (int i = 0; i < statements.size(); i++) {
+                positionById.put(statements.get(i).getId(), i);
+            }
+        }
+
+        Integer position = positionById.get(statement.getId());
+        return position == null || position + 1 >= statements.size() ? null : (Statement) statements.get(position + 1);
+    }
+
+    /**
+     * @return A cursor to the tree, for code that needs one, through the tree's ancestors.
+     */
+    public Cursor cursor(Tree tree) {
+        Tree parent = getParent(tree);
+        return new Cursor(parent == null ? null : cursor(parent), tree);
+    }
+
+    private Map<UUID, Tree> parents() {
+        if (!traversed && indexed != null) {
+            traversed = true;
+            new Index().visit(indexed);
+        }
+        return parentById;
+    }
+
+    private class Index extends AbstractJavaSourceVisitor<Void> {
+        @Nullable
+        private Tree parent;
+
+        @Override
+        public Void defaultTo(Tree t) {
+            return null;
+        }
+
+        @Override
+        public Void visit(@Nullable Tree tree) {
+            if (tree == null) {
+                return null;
+            }
+
+            Tree enclosing = parent;
+            if (enclosing != null) {
+                parentById.put(tree.getId(), enclosing);
+            }
+
+            parent = tree;
+            try {
+                return super.visit(tree);
+            } finally {
+                parent = enclosing;
+            }
+        }
+    }
+}
@@ -21,7 +21,6 @@ import org.openrewrite.Tree;
 import org.openrewrite.checkstyle.policy.RightCurlyPolicy;
 import org.openrewrite.checkstyle.policy.Token;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.utilities.SpansMultipleLines;
 
 import java.util.Set;
 import java.util.stream.Stream;
@@ -30,6 +29,13 @@ import static java.util.stream.Collectors.toSet;
 
 @AutoConfigure
 public class RightCurly extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.Block.class,
+            J.If.Else.class,
+            J.Try.Finally.class,
+            J.Try.Catch.class
+    );
+
     private static final Set<Token> DEFAULT_TOKENS = Stream.of(
             Token.LITERAL_TRY, Token.LITERAL_CATCH, Token.LITERAL_FINALLY, Token.LITERAL_IF, Token.LITERAL_ELSE
     ).collect(toSet());
@@ -48,24 +54,29 @@ public class RightCurly extends CheckstyleRefactorVisitor {
     }
 
     @SuppressWarnings("ConstantConditions")
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitBlock(J.Block<J> block) {
         J.Block<J> b = refactor(block, super::visitBlock);
 
         Cursor parentCursor = getCursor().getParentOrThrow();
-        boolean tokenMatches = tokens.stream().anyMatch(t -> t.getMatcher().matches(getCursor())) ||
-                (option != RightCurlyPolicy.ALONE_OR_SINGLELINE && tokens.stream().anyMatch(t -> t.getMatcher().matches(parentCursor))) ||
+        boolean tokenMatches = Token.matchesAny(tokens, getCursor()) ||
+                (option != RightCurlyPolicy.ALONE_OR_SINGLELINE && Token.matchesAny(tokens, parentCursor)) ||
                 parentCursor.getTree() instanceof J.Block;
 
         boolean satisfiesPolicy = block.getEnd().getPrefix().contains("\n") ||
-                (option != RightCurlyPolicy.ALONE && !new SpansMultipleLines(block, null).visit(block));
+                (option != RightCurlyPolicy.ALONE && !getLineMap().spansMultipleLines(block, null));
 
         if (tokenMatches && !satisfiesPolicy && parentCursor.firstEnclosing(J.Block.class) != null) {
             String suffix = formatter.findIndent(getCursor().getParentOrThrow()
                             .firstEnclosing(J.Block.class).getIndent(),
                     getCursor().getParentOrThrow().getTree()).getPrefix();
 
-            b = b.withEnd(b.getEnd().withPrefix(suffix));
+            b = b.withEnd(b.getEnd().withPrefix(WhitespaceChecks.intern(suffix)));
 
             if (b.getStatements().size() == 1) {
                 b.getStatements().set(0, b.getStatements().get(0).withFormatting(formatter.format(b)));
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.java.tree.J;
+
+import java.util.*;
+
+/**
+ * Orders checks so that a check that {@link CheckstyleRefactorVisitor#getProducedKinds() produces} a kind of
+ * node runs before the checks that {@link CheckstyleRefactorVisitor#getConsumedKinds() consume} it. For example,
+ * {@link NeedBraces} adds blocks that {@link LeftCurly} and {@link RightCurly} then format, so running it first
+ * lets both see its blocks in the same round instead of the next one.
+ * <p>
+ * Checks that don't depend on one another keep their relative order. When checks depend on one another in a
+ * cycle, the one that comes first in the original order is run first.
+ */
+public final class RulePlanner {
+    private RulePlanner() {
+    }
+
+    public static List<CheckstyleRefactorVisitor> plan(Collection<? extends CheckstyleRefactorVisitor> checks) {
+        List<CheckstyleRefactorVisitor> unplanned = new ArrayList<>(checks);
+        int n = unplanned.size();
+
+        List<BitSet> runsBefore = new ArrayList<>(n);
+        int[] inDegree = new int[n];
+        for (int i = 0; i < n; i++) {
+            BitSet dependents = new BitSet(n);
+            for (int j = 0; j < n; j++) {
+                if (i != j && feeds(unplanned.get(i), unplanned.get(j))) {
+                    dependents.set(j);
+                    inDegree[j]++;
+                }
+            }
+            runsBefore.add(dependents);
+        }
+
+        List<CheckstyleRefactorVisitor> planned = new ArrayList<>(n);
+        boolean[] done = new boolean[n];
+        while (planned.size() < n) {
+            int next = -1;
+            for (int i = 0; i < n; i++) {
+                if (!done[i] && inDegree[i] == 0) {
+                    next = i;
+                    break;
+                }
+            }
+
+            if (next == -1) {
+                // the remaining checks depend on each other in a cycle
+                for (int i = 0; i < n; i++) {
+                    if (!done[i]) {
+                        next = i;
+                        break;
+                    }
+                }
+            }
+
+            done[next] = true;
+            planned.add(unplanned.get(next));
+            BitSet dependents = runsBefore.get(next);
+            for (int j = dependents.nextSetBit(0); j >= 0; j = dependents.nextSetBit(j + 1)) {
+                inDegree[j]--;
+            }
+        }
+
+        return planned;
+    }
+
+    /**
+     * @return Whether any kind of node that the producer produces may be consumed by the consumer.
+     */
+    static boolean feeds(CheckstyleRefactorVisitor producer, CheckstyleRefactorVisitor consumer) {
+        Set<Class<? extends J>> consumed = consumer.getConsumedKinds();
+        for (Class<? extends J> produced : producer.getProducedKinds()) {
+            if (consumed.isEmpty()) {
+                return true;
+            }
+            for (Class<? extends J> kind : consumed) {
+                if (kind.isAssignableFrom(produced) || produced.isAssignableFrom(kind)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -20,21 +20,27 @@ import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 
+import java.util.Set;
+
 import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class SimplifyBooleanExpression extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.Binary.class, J.Unary.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.Literal.class, J.Binary.class, J.Unary.class);
+
     public SimplifyBooleanExpression() {
         setCursoringOn();
     }
 
     @Override
-    public J visitCompilationUnit(J.CompilationUnit cu) {
-        J.CompilationUnit c = refactor(cu, super::visitCompilationUnit);
-        if (c != cu) {
-            andThen(new SimplifyBooleanExpression());
-        }
-        return c;
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
     }
 
     @Override
@@ -46,8 +52,7 @@ public class SimplifyBooleanExpression extends CheckstyleRefactorVisitor {
                 return binaryLeftAndUnwrap(b);
             } else if (isLiteralFalse(b.getRight())) {
                 return binaryRightAndUnwrap(b);
-            } else if (b.getLeft().printTrimmed().replaceAll("\\s", "").equals(
-                    b.getRight().printTrimmed().replaceAll("\\s", ""))) {
+            } else if (getStructuralEquality().equal(b.getLeft(), b.getRight())) {
                 return binaryLeftAndUnwrap(b);
             }
         } else if (b.getOperator() instanceof J.Binary.Operator.Or) {
@@ -55,8 +60,7 @@ public class SimplifyBooleanExpression extends CheckstyleRefactorVisitor {
                 return binaryLeftAndUnwrap(b);
             } else if (isLiteralTrue(b.getRight())) {
                 return binaryRightAndUnwrap(b);
-            } else if (b.getLeft().printTrimmed().replaceAll("\\s", "").equals(
-                    b.getRight().printTrimmed().replaceAll("\\s", ""))) {
+            } else if (getStructuralEquality().equal(b.getLeft(), b.getRight())) {
                 return binaryLeftAndUnwrap(b);
             }
         } else if (b.getOperator() instanceof J.Binary.Operator.Equal) {
@@ -17,7 +17,6 @@ package org.openrewrite.checkstyle;
 
 import org.openrewrite.Cursor;
 import org.openrewrite.AutoConfigure;
-import org.openrewrite.java.DeleteStatement;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
@@ -26,20 +25,43 @@ import org.openrewrite.java.tree.Statement;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.openrewrite.Formatting.EMPTY;
 import static org.openrewrite.Formatting.format;
 import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class SimplifyBooleanReturn extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.If.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.Return.class, J.Unary.class, J.Parentheses.class);
+
+    private static final Set<String> LEXICAL_TRIGGERS = Stream.of("true", "false").collect(toSet());
+
     public SimplifyBooleanReturn() {
         setCursoringOn();
     }
 
+    @Override
+    public Set<String> getLexicalTriggers() {
+        return LEXICAL_TRIGGERS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitIf(J.If iff) {
         J.If i = refactor(iff, super::visitIf);
@@ -65,16 +87,13 @@ public class SimplifyBooleanReturn extends CheckstyleRefactorVisitor {
 
                 if (isLiteralTrue(retrn.getExpr())) {
                     if (singleFollowingStatement.map(this::isLiteralFalse).orElse(false) && i.getElsePart() == null) {
-                        andThen(new DeleteStatement.Scoped(followingStatements.get(0)));
+                        edits().delete(followingStatements.get(0));
                         return retrn
                                 .withExpr(ifCondition.withFormatting(format(" ")))
                                 .withFormatting(i.getFormatting());
                     } else if (!singleFollowingStatement.isPresent() &&
                             getReturnExprIfOnlyStatementInElseThen(i).map(this::isLiteralFalse).orElse(false)) {
-                        if (i.getElsePart() != null) {
-                            andThen(new DeleteStatement.Scoped(i.getElsePart().getStatement()));
-                        }
-
+                        // the else part goes away with the if that the return replaces
                         return retrn
                                 .withExpr(ifCondition.withFormatting(format(" ")))
                                 .withFormatting(i.getFormatting());
@@ -83,13 +102,10 @@ public class SimplifyBooleanReturn extends CheckstyleRefactorVisitor {
                     boolean returnThenPart = false;
 
                     if (singleFollowingStatement.map(this::isLiteralTrue).orElse(false) && i.getElsePart() == null) {
-                        andThen(new DeleteStatement.Scoped(followingStatements.get(0)));
+                        edits().delete(followingStatements.get(0));
                         returnThenPart = true;
                     } else if (!singleFollowingStatement.isPresent() && getReturnExprIfOnlyStatementInElseThen(i)
                             .map(this::isLiteralTrue).orElse(false)) {
-                        if (i.getElsePart() != null) {
-                            andThen(new DeleteStatement.Scoped(i.getElsePart().getStatement()));
-                        }
                         returnThenPart = true;
                     }
 
@@ -16,16 +16,23 @@
 package org.openrewrite.checkstyle;
 
 import org.openrewrite.AutoConfigure;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.ChangeFieldName;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.Set;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
+import static java.util.Collections.singleton;
+
 @AutoConfigure
 public class StaticVariableName extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.VariableDecls.NamedVar.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.VariableDecls.NamedVar.class, J.Ident.class);
+
     // TODO should this be configurable?
     private static final Function<String, String> renamer = StaticVariableName::snakeCaseToCamel;
 
@@ -35,10 +42,21 @@ public class StaticVariableName extends CheckstyleRefactorVisitor {
     private boolean applyToPackage;
     private boolean applyToPrivate;
 
+    /**
+     * Where to record the renames of fields that other files can see, so that their references in those
+     * files are renamed too.
+     */
+    @Nullable
+    private FieldReferenceIndex fieldReferenceIndex;
+
     public StaticVariableName() {
         setCursoringOn();
     }
 
+    public void setFieldReferenceIndex(@Nullable FieldReferenceIndex fieldReferenceIndex) {
+        this.fieldReferenceIndex = fieldReferenceIndex;
+    }
+
     @Override
     protected void configure(Module m) {
         this.format = m.prop("format", Pattern.compile("^[a-z][a-zA-Z0-9]*$"));
@@ -48,6 +66,21 @@ public class StaticVariableName extends CheckstyleRefactorVisitor {
         this.applyToPrivate = m.prop("applyToPrivate", true);
     }
 
+    @Override
+    public Set<String> getLexicalTriggers() {
+        return singleton("static");
+    }
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
+
     @Override
     public J visitVariable(J.VariableDecls.NamedVar variable) {
         J.VariableDecls multiVariable = getCursor().getParentOrThrow().getTree();
@@ -58,7 +91,12 @@ public class StaticVariableName extends CheckstyleRefactorVisitor {
                         (applyToPackage && (!multiVariable.hasModifier("public") && !multiVariable.hasModifier("protected") && !multiVariable.hasModifier("private")))
         )) {
             JavaType.Class containingClassType = TypeUtils.asClass(enclosingClass().getType());
-            andThen(new ChangeFieldName.Scoped(containingClassType, variable.getSimpleName(), renamer.apply(variable.getSimpleName())));
+            String toName = renamer.apply(variable.getSimpleName());
+            andThen(new ChangeFieldName.Scoped(containingClassType, variable.getSimpleName(), toName));
+            if (fieldReferenceIndex != null && containingClassType != null && !multiVariable.hasModifier("private") &&
+                    !toName.equals(variable.getSimpleName())) {
+                fieldReferenceIndex.rename(containingClassType, variable.getSimpleName(), toName);
+            }
         }
         return super.visitVariable(variable);
     }
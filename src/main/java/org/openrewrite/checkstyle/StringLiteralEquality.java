@@ -31,6 +31,23 @@ import static org.openrewrite.Tree.randomId;
 
 @AutoConfigure
 public class StringLiteralEquality extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.Binary.class);
+    private static final Set<Class<? extends J>> PRODUCED_KINDS = kinds(J.MethodInvocation.class);
+
+    @Override
+    public Set<String> getLexicalTriggers() {
+        return singleton("==");
+    }
+
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
+    @Override
+    public Set<Class<? extends J>> getProducedKinds() {
+        return PRODUCED_KINDS;
+    }
 
     @Override
     public J visitBinary(J.Binary binary) {
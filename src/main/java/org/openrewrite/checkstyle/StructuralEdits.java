@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.DeleteStatement;
+import org.openrewrite.java.JavaRefactorVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Statement;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Edits that checks record against nodes, by id, while they visit a compilation unit, and that are then
+ * all applied together in one more traversal, rather than in one traversal per edit.
+ * <p>
+ * Checks get the edits for the traversal they are in with {@link CheckstyleRefactorVisitor#edits()}, which
+ * queues them to be applied after the traversal.
+ */
+public class StructuralEdits extends JavaRefactorVisitor {
+    private final Map<UUID, Statement> deletes = new LinkedHashMap<>();
+    private final Map<UUID, List<Statement>> insertsAfter = new HashMap<>();
+    private final Map<UUID, UnaryOperator<J>> replacements = new HashMap<>();
+    private final Set<UUID> deleted = new HashSet<>();
+
+    /**
+     * Remove a statement from the block or case that contains it.
+     */
+    public StructuralEdits delete(Statement statement) {
+        deletes.put(statement.getId(), statement);
+        return this;
+    }
+
+    /**
+     * Add a statement to the block or case that contains the anchor, after the anchor.
+     */
+    public StructuralEdits insertAfter(Statement anchor, Statement statement) {
+        insertsAfter.computeIfAbsent(anchor.getId(), id -> new ArrayList<>()).add(statement);
+        return this;
+    }
+
+    /**
+     * Replace a node once its children have been edited. Replacements of the same node are applied in the
+     * order they were recorded, each to the result of the one before it.
+     *
+     * @param target      The node to replace.
+     * @param replacement Given the node as it is when the edits are applied, returns what to replace it with.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends J> StructuralEdits replace(T target, Function<T, J> replacement) {
+        UnaryOperator<J> r = t -> replacement.apply((T) t);
+        replacements.merge(target.getId(), r, (r1, r2) -> t -> r2.apply(r1.apply(t)));
+        return this;
+    }
+
+    public StructuralEdits rename(J.VariableDecls.NamedVar variable, String name) {
+        return replace(variable, v -> v.withName(v.getName().withName(name)));
+    }
+
+    public boolean isEmpty() {
+        return deletes.isEmpty() && insertsAfter.isEmpty() && replacements.isEmpty();
+    }
+
+    @Override
+    public J visit(@Nullable Tree tree) {
+        J t = super.visit(tree);
+        if (t != null && !replacements.isEmpty()) {
+            UnaryOperator<J> replacement = replacements.get(t.getId());
+            if (replacement != null) {
+                t = replacement.apply(t);
+            }
+        }
+        return t;
+    }
+
+    @Override
+    public J visitCompilationUnit(J.CompilationUnit cu) {
+        J c = super.visitCompilationUnit(cu);
+
+        for (Map.Entry<UUID, Statement> delete : deletes.entrySet()) {
+            if (!deleted.contains(delete.getKey())) {
+                // the statement isn't in a block or a case, e.g. it is the body of a loop
+                andThen(new DeleteStatement.Scoped(delete.getValue()));
+            }
+        }
+
+        return c;
+    }
+
+    @Override
+    public J visitBlock(J.Block<J> block) {
+        J.Block<J> b = refactor(block, super::visitBlock);
+        List<J> statements = edit(b.getStatements());
+        return statements == null ? b : b.withStatements(statements);
+    }
+
+    @Override
+    public J visitCase(J.Case caze) {
+        J.Case c = refactor(caze, super::visitCase);
+        List<Statement> statements = edit(c.getStatements());
+        return statements == null ? c : c.withStatements(statements);
+    }
+
+    /**
+     * @return The statements with deletions and insertions applied, or null if there are none to apply to them.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private <T extends J> List<T> edit(List<T> statements) {
+        if (deletes.isEmpty() && insertsAfter.isEmpty()) {
+            return null;
+        }
+
+        List<T> edited = null;
+        for (int i = 0; i < statements.size(); i++) {
+            T statement = statements.get(i);
+            boolean delete = deletes.containsKey(statement.getId());
+            List<Statement> inserts = insertsAfter.get(statement.getId());
+
+            if (edited == null && (delete || inserts != null)) {
+                edited = new ArrayList<>(statements.subList(0, i));
+            }
+
+            if (edited != null) {
+                if (delete) {
+                    deleted.add(statement.getId());
+                } else {
+                    edited.add(statement);
+                }
+                if (inserts != null) {
+                    for (Statement insert : inserts) {
+                        edited.add((T) insert);
+                    }
+                }
+            }
+        }
+
+        return edited;
+    }
+}
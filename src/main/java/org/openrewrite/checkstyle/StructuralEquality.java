@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares expressions by their structure, ignoring formatting, without printing them.
+ * <p>
+ * The hash of each node is computed once and remembered for as long as the node is, so that comparing
+ * the same operands again, or comparing expressions that differ, is a lookup rather than a traversal.
+ * Identifiers, literals, field accesses, method invocations, operators, parentheses, array accesses,
+ * casts, instanceof tests and ternaries are compared by structure. Any other kind of node is compared by
+ * its printed form with whitespace removed.
+ */
+public class StructuralEquality {
+    private final Map<J, Integer> hashes = new IdentityHashMap<>();
+    private final Map<J, String> printed = new IdentityHashMap<>();
+
+    /**
+     * Forget the hashes of the nodes seen so far, e.g. when moving on to another compilation unit.
+     */
+    public void clear() {
+        hashes.clear();
+        printed.clear();
+    }
+
+    public boolean equal(@Nullable J j1, @Nullable J j2) {
+        if (j1 == j2) {
+            return true;
+        }
+        if (j1 == null || j2 == null || j1.getClass() != j2.getClass() || hash(j1) != hash(j2)) {
+            return false;
+        }
+
+        if (j1 instanceof J.Ident) {
+            return ((J.Ident) j1).getSimpleName().equals(((J.Ident) j2).getSimpleName());
+        } else if (j1 instanceof J.Literal) {
+            J.Literal l1 = (J.Literal) j1;
+            J.Literal l2 = (J.Literal) j2;
+            return Objects.equals(l1.getValue(), l2.getValue()) && Objects.equals(l1.getType(), l2.getType());
+        } else if (j1 instanceof J.FieldAccess) {
+            J.FieldAccess f1 = (J.FieldAccess) j1;
+            J.FieldAccess f2 = (J.FieldAccess) j2;
+            return f1.getSimpleName().equals(f2.getSimpleName()) && equal(f1.getTarget(), f2.getTarget());
+        } else if (j1 instanceof J.MethodInvocation) {
+            J.MethodInvocation m1 = (J.MethodInvocation) j1;
+            J.MethodInvocation m2 = (J.MethodInvocation) j2;
+            return m1.getSimpleName().equals(m2.getSimpleName()) &&
+                    equal(m1.getSelect(), m2.getSelect()) &&
+                    equal(m1.getArgs().getArgs(), m2.getArgs().getArgs());
+        } else if (j1 instanceof J.Binary) {
+            J.Binary b1 = (J.Binary) j1;
+            J.Binary b2 = (J.Binary) j2;
+            return b1.getOperator().getClass() == b2.getOperator().getClass() &&
+                    equal(b1.getLeft(), b2.getLeft()) &&
+                    equal(b1.getRight(), b2.getRight());
+        } else if (j1 instanceof J.Unary) {
+            J.Unary u1 = (J.Unary) j1;
+            J.Unary u2 = (J.Unary) j2;
+            return u1.getOperator().getClass() == u2.getOperator().getClass() && equal(u1.getExpr(), u2.getExpr());
+        } else if (j1 instanceof J.Parentheses) {
+            return equal(((J.Parentheses<?>) j1).getTree(), ((J.Parentheses<?>) j2).getTree());
+        } else if (j1 instanceof J.ArrayAccess) {
+            J.ArrayAccess a1 = (J.ArrayAccess) j1;
+            J.ArrayAccess a2 = (J.ArrayAccess) j2;
+            return equal(a1.getIndexed(), a2.getIndexed()) &&
+                    equal(a1.getDimension().getIndex(), a2.getDimension().getIndex());
+        } else if (j1 instanceof J.TypeCast) {
+            J.TypeCast t1 = (J.TypeCast) j1;
+            J.TypeCast t2 = (J.TypeCast) j2;
+            return equal(t1.getClazz().getTree(), t2.getClazz().getTree()) && equal(t1.getExpr(), t2.getExpr());
+        } else if (j1 instanceof J.InstanceOf) {
+            J.InstanceOf i1 = (J.InstanceOf) j1;
+            J.InstanceOf i2 = (J.InstanceOf) j2;
+            return equal(i1.getExpr(), i2.getExpr()) && equal(i1.getClazz(), i2.getClazz());
+        } else if (j1 instanceof J.Ternary) {
+            J.Ternary t1 = (J.Ternary) j1;
+            J.Ternary t2 = (J.Ternary) j2;
+            return equal(t1.getCondition(), t2.getCondition()) &&
+                    equal(t1.getTruePart(), t2.getTruePart()) &&
+                    equal(t1.getFalsePart(), t2.getFalsePart());
+        } else if (j1 instanceof J.Empty) {
+            return true;
+        }
+
+        return printed(j1).equals(printed(j2));
+    }
+
+    private boolean equal(List<? extends J> l1, List<? extends J> l2) {
+        if (l1.size() != l2.size()) {
+            return false;
+        }
+        for (int i = 0; i < l1.size(); i++) {
+            if (!equal(l1.get(i), l2.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A hash of the node's structure, which is the same for nodes that are {@link #equal(J, J) equal}.
+     */
+    public int hash(@Nullable J j) {
+        if (j == null) {
+            return 0;
+        }
+        Integer hash = hashes.get(j);
+        if (hash == null) {
+            hash = 31 * j.getClass().hashCode() + structureHash(j);
+            hashes.put(j, hash);
+        }
+        return hash;
+    }
+
+    private int structureHash(J j) {
+        if (j instanceof J.Ident) {
+            return ((J.Ident) j).getSimpleName().hashCode();
+        } else if (j instanceof J.Literal) {
+            return Objects.hashCode(((J.Literal) j).getValue());
+        } else if (j instanceof J.FieldAccess) {
+            J.FieldAccess f = (J.FieldAccess) j;
+            return 31 * f.getSimpleName().hashCode() + hash(f.getTarget());
+        } else if (j instanceof J.MethodInvocation) {
+            J.MethodInvocation m = (J.MethodInvocation) j;
+            int hash = 31 * m.getSimpleName().hashCode() + hash(m.getSelect());
+            for (J arg : m.getArgs().getArgs()) {
+                hash = 31 * hash + hash(arg);
+            }
+            return hash;
+        } else if (j instanceof J.Binary) {
+            J.Binary b = (J.Binary) j;
+            return 31 * (31 * b.getOperator().getClass().hashCode() + hash(b.getLeft())) + hash(b.getRight());
+        } else if (j instanceof J.Unary) {
+            J.Unary u = (J.Unary) j;
+            return 31 * u.getOperator().getClass().hashCode() + hash(u.getExpr());
+        } else if (j instanceof J.Parentheses) {
+            return hash(((J.Parentheses<?>) j).getTree());
+        } else if (j instanceof J.ArrayAccess) {
+            J.ArrayAccess a = (J.ArrayAccess) j;
+            return 31 * hash(a.getIndexed()) + hash(a.getDimension().getIndex());
+        } else if (j instanceof J.TypeCast) {
+            J.TypeCast t = (J.TypeCast) j;
+            return 31 * hash(t.getClazz().getTree()) + hash(t.getExpr());
+        } else if (j instanceof J.InstanceOf) {
+            J.InstanceOf i = (J.InstanceOf) j;
+            return 31 * hash(i.getExpr()) + hash(i.getClazz());
+        } else if (j instanceof J.Ternary) {
+            J.Ternary t = (J.Ternary) j;
+            return 31 * (31 * hash(t.getCondition()) + hash(t.getTruePart())) + hash(t.getFalsePart());
+        } else if (j instanceof J.Empty) {
+            return 0;
+        }
+
+        return printed(j).hashCode();
+    }
+
+    private String printed(J j) {
+        return printed.computeIfAbsent(j, t -> removeWhitespace(t.printTrimmed()));
+    }
+
+    private static String removeWhitespace(String s) {
+        StringBuilder noWhitespace = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                noWhitespace.append(c);
+            }
+        }
+        return noWhitespace.toString();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * The members that classes can see of their supertypes, computed once per supertype for a whole run and shared
+ * by every file and thread that uses the same cache, since the same base classes are extended over and over
+ * across a codebase.
+ * <p>
+ * Members are cached by the fully qualified name of the direct supertype and the package of the class that
+ * extends it.
+ */
+public class SupertypeMemberCache {
+    private static final Members NONE = new Members(Collections.emptyList());
+
+    private final Map<String, Members> membersBySupertype = new ConcurrentHashMap<>();
+
+    public Members getVisibleSupertypeMembers(@Nullable JavaType type) {
+        if (!(type instanceof JavaType.Class)) {
+            return NONE;
+        }
+
+        JavaType.Class clazz = (JavaType.Class) type;
+        JavaType.Class supertype = clazz.getSupertype();
+        if (supertype == null) {
+            return new Members(TypeUtils.getVisibleSupertypeMembers(clazz));
+        }
+
+        String fqn = clazz.getFullyQualifiedName();
+        String key = supertype.getFullyQualifiedName() + ' ' + fqn.substring(0, Math.max(0, fqn.lastIndexOf('.')));
+        return membersBySupertype.computeIfAbsent(key, k -> new Members(TypeUtils.getVisibleSupertypeMembers(clazz)));
+    }
+
+    public static class Members {
+        private final List<JavaType.Var> vars;
+        private final Set<String> names;
+
+        private Members(List<JavaType.Var> vars) {
+            this.vars = unmodifiableList(new ArrayList<>(vars));
+            Set<String> names = new HashSet<>();
+            for (JavaType.Var var : vars) {
+                names.add(var.getName());
+            }
+            this.names = unmodifiableSet(names);
+        }
+
+        public List<JavaType.Var> getVars() {
+            return vars;
+        }
+
+        public boolean hasName(String name) {
+            return names.contains(name);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Statement;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * What the checks that fix switches need to know about a switch: where its default case is, which cases share
+ * a body, which cases end in a statement that leaves the case, and where the comments are that could relieve a
+ * case from falling through. Built once per switch by {@link SwitchModels} and shared by the checks that visit it.
+ */
+public class SwitchModel {
+    private final List<J.Case> cases;
+    private final int defaultIndex;
+
+    /**
+     * For each case, the index of the first case of the group of cases that share its body.
+     */
+    private final int[] groupStarts;
+
+    /**
+     * For each case, the index of the case whose statements are the body of its group.
+     */
+    private final int[] groupEnds;
+
+    private final BitSet terminal;
+
+    /**
+     * For each case, its prefix if there is a comment in it.
+     */
+    private final String[] leadingComments;
+
+    private final List<String> trailingComments;
+
+    SwitchModel(J.Switch switzh) {
+        this.cases = switzh.getCases().getStatements();
+
+        int n = cases.size();
+        int defaultIndex = -1;
+        this.groupStarts = new int[n];
+        this.groupEnds = new int[n];
+        this.terminal = new BitSet(n);
+        this.leadingComments = new String[n];
+
+        int groupStart = 0;
+        for (int i = 0; i < n; i++) {
+            J.Case caze = cases.get(i);
+            if (defaultIndex == -1 && isDefault(caze)) {
+                defaultIndex = i;
+            }
+
+            groupStarts[i] = groupStart;
+            List<Statement> statements = caze.getStatements();
+            if (!statements.isEmpty() || i == n - 1) {
+                for (int j = groupStart; j <= i; j++) {
+                    groupEnds[j] = i;
+                }
+                groupStart = i + 1;
+            }
+
+            if (!statements.isEmpty() && isTerminal(statements.get(statements.size() - 1))) {
+                terminal.set(i);
+            }
+
+            leadingComments[i] = commentOrNull(caze.getFormatting().getPrefix());
+        }
+        this.defaultIndex = defaultIndex;
+
+        if (n == 0) {
+            this.trailingComments = emptyList();
+        } else {
+            List<String> trailingComments = new ArrayList<>(2);
+            String lastCaseSuffix = commentOrNull(cases.get(n - 1).getFormatting().getSuffix());
+            if (lastCaseSuffix != null) {
+                trailingComments.add(lastCaseSuffix);
+            }
+            String end = commentOrNull(switzh.getCases().getEnd().getPrefix());
+            if (end != null) {
+                trailingComments.add(end);
+            }
+            this.trailingComments = unmodifiableList(trailingComments);
+        }
+    }
+
+    public List<J.Case> getCases() {
+        return cases;
+    }
+
+    public boolean hasNoCases() {
+        return cases.isEmpty();
+    }
+
+    public boolean isLast(int caseIndex) {
+        return caseIndex == cases.size() - 1;
+    }
+
+    /**
+     * @return The index of the default case, or -1 if there isn't one.
+     */
+    public int getDefaultIndex() {
+        return defaultIndex;
+    }
+
+    @Nullable
+    public J.Case getDefaultCase() {
+        return defaultIndex == -1 ? null : cases.get(defaultIndex);
+    }
+
+    public boolean isEmpty(int caseIndex) {
+        return cases.get(caseIndex).getStatements().isEmpty();
+    }
+
+    /**
+     * @return The index of the first case of the group of cases that share a body with the case, which is
+     * the case itself unless the cases before it have no statements of their own.
+     */
+    public int getGroupStart(int caseIndex) {
+        return groupStarts[caseIndex];
+    }
+
+    /**
+     * @return The index of the case whose statements are the body of the group the case is in.
+     */
+    public int getGroupEnd(int caseIndex) {
+        return groupEnds[caseIndex];
+    }
+
+    /**
+     * @return Whether the last statement of the case leaves it, so that it doesn't fall through to the next case.
+     */
+    public boolean isTerminal(int caseIndex) {
+        return terminal.get(caseIndex);
+    }
+
+    /**
+     * @return The prefix of the case if there is a comment in it. A comment on the last line of a case winds
+     * up in the prefix of the case after it.
+     */
+    @Nullable
+    public String getLeadingComment(int caseIndex) {
+        return leadingComments[caseIndex];
+    }
+
+    /**
+     * @return The suffix of the last case and the prefix of the end of the switch, those of them that have a
+     * comment in them.
+     */
+    public List<String> getTrailingComments() {
+        return trailingComments;
+    }
+
+    public static boolean isDefault(J.Case caze) {
+        return caze.getPattern() instanceof J.Ident && ((J.Ident) caze.getPattern()).getSimpleName().equals("default");
+    }
+
+    public static boolean isTerminal(J statement) {
+        return statement instanceof J.Break ||
+                statement instanceof J.Continue ||
+                statement instanceof J.Return ||
+                statement instanceof J.Throw;
+    }
+
+    /**
+     * @return The whitespace, if there is a comment in it.
+     */
+    @Nullable
+    static String commentOrNull(String whitespace) {
+        return whitespace.indexOf('/') >= 0 ? whitespace : null;
+    }
+}
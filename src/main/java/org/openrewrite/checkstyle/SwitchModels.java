@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The {@link SwitchModel} of each switch of a compilation unit, built the first time a check asks about the switch
+ * and shared by the checks that visit the same compilation unit.
+ * <p>
+ * Switches are looked up by identity, so a switch that a check has rebuilt gets a model of its own.
+ */
+public class SwitchModels {
+    private final Map<J.Switch, SwitchModel> modelBySwitch = new IdentityHashMap<>();
+
+    @Nullable
+    private J.CompilationUnit indexed;
+
+    /**
+     * Forget the models of the switches of another compilation unit, unless it is the one already indexed.
+     */
+    public void index(J.CompilationUnit cu) {
+        if (cu == indexed) {
+            return;
+        }
+        indexed = cu;
+        modelBySwitch.clear();
+    }
+
+    public SwitchModel of(J.Switch switzh) {
+        return modelBySwitch.computeIfAbsent(switzh, SwitchModel::new);
+    }
+}
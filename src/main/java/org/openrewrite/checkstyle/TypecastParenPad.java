@@ -22,11 +22,15 @@ import org.openrewrite.checkstyle.policy.PadPolicy;
 import org.openrewrite.AutoConfigure;
 import org.openrewrite.java.tree.J;
 
+import java.util.Set;
+
 import static org.openrewrite.Formatting.EMPTY;
 import static org.openrewrite.Formatting.format;
 
 @AutoConfigure
 public class TypecastParenPad extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(J.TypeCast.class);
+
     private PadPolicy option;
 
     @Override
@@ -39,6 +43,11 @@ public class TypecastParenPad extends CheckstyleRefactorVisitor {
         return Tags.of("option", option.toString());
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public J visitTypeCast(J.TypeCast typeCast) {
         J.TypeCast tc = refactor(typeCast, super::visitTypeCast);
@@ -31,6 +31,15 @@ import static org.openrewrite.checkstyle.policy.ParenthesesToken.*;
 
 @AutoConfigure
 public class UnnecessaryParentheses extends CheckstyleRefactorVisitor {
+    private static final Set<Class<? extends J>> CONSUMED_KINDS = kinds(
+            J.Parentheses.class,
+            J.Literal.class,
+            J.AssignOp.class,
+            J.Assign.class,
+            J.VariableDecls.NamedVar.class,
+            J.Lambda.class
+    );
+
     private static final Set<ParenthesesToken> DEFAULT_TOKENS = Stream.of(
             EXPR,
             IDENT,
@@ -68,6 +77,11 @@ public class UnnecessaryParentheses extends CheckstyleRefactorVisitor {
         this.tokens = m.propAsTokens(ParenthesesToken.class, DEFAULT_TOKENS);
     }
 
+    @Override
+    public Set<Class<? extends J>> getConsumedKinds() {
+        return CONSUMED_KINDS;
+    }
+
     @Override
     public <T extends J> J visitParentheses(J.Parentheses<T> parens) {
         if (parens.getTree() instanceof J.Ident && tokens.contains(IDENT)) {
@@ -98,17 +112,7 @@ public class UnnecessaryParentheses extends CheckstyleRefactorVisitor {
     public J visitAssignOp(J.AssignOp assignOp) {
         Expression assignment = assignOp.getAssignment();
         J.AssignOp.Operator op = assignOp.getOperator();
-        if (assignment instanceof J.Parentheses && ((tokens.contains(BAND_ASSIGN) && op instanceof J.AssignOp.Operator.BitAnd) ||
-                (tokens.contains(BOR_ASSIGN) && op instanceof J.AssignOp.Operator.BitOr) ||
-                (tokens.contains(BSR_ASSIGN) && op instanceof J.AssignOp.Operator.UnsignedRightShift) ||
-                (tokens.contains(BXOR_ASSIGN) && op instanceof J.AssignOp.Operator.BitXor) ||
-                (tokens.contains(SR_ASSIGN) && op instanceof J.AssignOp.Operator.RightShift) ||
-                (tokens.contains(SL_ASSIGN) && op instanceof J.AssignOp.Operator.LeftShift) ||
-                (tokens.contains(MINUS_ASSIGN) && op instanceof J.AssignOp.Operator.Subtraction) ||
-                (tokens.contains(DIV_ASSIGN) && op instanceof J.AssignOp.Operator.Division) ||
-                (tokens.contains(PLUS_ASSIGN) && op instanceof J.AssignOp.Operator.Addition) ||
-                (tokens.contains(STAR_ASSIGN) && op instanceof J.AssignOp.Operator.Multiplication) ||
-                (tokens.contains(MOD_ASSIGN) && op instanceof J.AssignOp.Operator.Modulo))) {
+        if (assignment instanceof J.Parentheses && tokens.contains(ParenthesesToken.of(op))) {
 
             maybeUnwrapParentheses(new Cursor(getCursor(), assignment));
         }
@@ -18,10 +18,77 @@ package org.openrewrite.checkstyle;
 import org.openrewrite.Tree;
 import org.openrewrite.internal.lang.Nullable;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 final class WhitespaceChecks {
+    /**
+     * Whitespace strings longer than this, or beyond this many distinct strings, aren't interned.
+     */
+    private static final int MAX_INTERNED_LENGTH = 128;
+    private static final int MAX_INTERNED = 4096;
+
+    /**
+     * The canonical instance of each whitespace string that checks have produced, so that the prefixes and
+     * suffixes of fixed trees share one instance of each common indentation rather than one per node.
+     */
+    private static final Map<String, String> INTERNED = new ConcurrentHashMap<>();
+
+    private static final String[] LINEBREAK_AND_INDENT = new String[MAX_INTERNED_LENGTH];
+
+    static {
+        StringBuilder linebreakAndIndent = new StringBuilder("\n");
+        for (int indent = 0; indent < LINEBREAK_AND_INDENT.length; indent++) {
+            LINEBREAK_AND_INDENT[indent] = intern(linebreakAndIndent.toString());
+            linebreakAndIndent.append(' ');
+        }
+    }
+
     private WhitespaceChecks() {
     }
 
+    /**
+     * @return The canonical instance of a whitespace string. Strings that contain anything other than
+     * whitespace are returned as they are.
+     */
+    public static String intern(String whitespace) {
+        if (whitespace.isEmpty()) {
+            return "";
+        }
+        if (whitespace.length() > MAX_INTERNED_LENGTH) {
+            return whitespace;
+        }
+        for (int i = 0; i < whitespace.length(); i++) {
+            if (!Character.isWhitespace(whitespace.charAt(i))) {
+                return whitespace;
+            }
+        }
+
+        String interned = INTERNED.get(whitespace);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return whitespace;
+        }
+        interned = INTERNED.putIfAbsent(whitespace, whitespace);
+        return interned == null ? whitespace : interned;
+    }
+
+    /**
+     * @return A linebreak followed by this many spaces.
+     */
+    public static String linebreakAndIndent(int indent) {
+        if (indent >= 0 && indent < LINEBREAK_AND_INDENT.length) {
+            return LINEBREAK_AND_INDENT[indent];
+        }
+        StringBuilder linebreakAndIndent = new StringBuilder(indent + 1).append('\n');
+        for (int i = 0; i < indent; i++) {
+            linebreakAndIndent.append(' ');
+        }
+        return linebreakAndIndent.toString();
+    }
+
     public static boolean prefixStartsWithNonLinebreakWhitespace(@Nullable Tree t) {
         return t != null && startsWithNonLinebreakWhitespace(t.getFormatting().getPrefix());
     }
@@ -35,22 +102,33 @@ final class WhitespaceChecks {
     }
 
     public static <T extends Tree> T stripSuffixUpToLinebreak(@Nullable T t) {
-        return t == null ? null : t.withSuffix(stripUpToLinebreak(t.getFormatting().getSuffix()));
+        if (t == null) {
+            return null;
+        }
+        String suffix = t.getFormatting().getSuffix();
+        String stripped = stripUpToLinebreak(suffix);
+        return stripped == suffix ? t : t.withSuffix(stripped);
     }
 
     public static <T extends Tree> T stripPrefixUpToLinebreak(@Nullable T t) {
-        return t == null ? null : t.withPrefix(stripUpToLinebreak(t.getFormatting().getPrefix()));
+        if (t == null) {
+            return null;
+        }
+        String prefix = t.getFormatting().getPrefix();
+        String stripped = stripUpToLinebreak(prefix);
+        return stripped == prefix ? t : t.withPrefix(stripped);
     }
 
+    /**
+     * @return The prefix or suffix without the spaces and tabs that it starts with, or the same string
+     * when it doesn't start with any.
+     */
     public static String stripUpToLinebreak(String prefixOrSuffix) {
-        StringBuilder sb = new StringBuilder();
-        boolean drop = true;
-        for (char c : prefixOrSuffix.toCharArray()) {
-            drop &= (c == ' ' || c == '\t');
-            if(!drop) {
-                sb.append(c);
-            }
+        int start = 0;
+        while (start < prefixOrSuffix.length() &&
+                (prefixOrSuffix.charAt(start) == ' ' || prefixOrSuffix.charAt(start) == '\t')) {
+            start++;
         }
-        return sb.toString();
+        return start == 0 ? prefixOrSuffix : intern(prefixOrSuffix.substring(start));
     }
 }
@@ -15,6 +15,12 @@
  */
 package org.openrewrite.checkstyle.policy;
 
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public enum OperatorToken {
     QUESTION,
     COLON,
@@ -51,5 +57,55 @@ public enum OperatorToken {
     BXOR_ASSIGN,
     BOR_ASSIGN,
     BAND_ASSIGN,
-    METHOD_REF
+    METHOD_REF;
+
+    /**
+     * The token for each class of binary and assignment operator, so that checking a configured set of tokens
+     * against an operator is one lookup here and one in the set, rather than an instanceof test per token.
+     */
+    private static final Map<Class<?>, OperatorToken> BY_OPERATOR_CLASS = new IdentityHashMap<>();
+
+    static {
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.Division.class, DIV);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.Multiplication.class, STAR);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.Addition.class, PLUS);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.Subtraction.class, MINUS);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.Modulo.class, MOD);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.RightShift.class, SR);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.LeftShift.class, SL);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.UnsignedRightShift.class, BSR);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.Equal.class, EQUAL);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.NotEqual.class, NOT_EQUAL);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.GreaterThan.class, GT);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.GreaterThanOrEqual.class, GE);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.LessThan.class, LT);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.LessThanOrEqual.class, LE);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.BitAnd.class, BAND);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.BitXor.class, BXOR);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.BitOr.class, BOR);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.And.class, LAND);
+        BY_OPERATOR_CLASS.put(J.Binary.Operator.Or.class, LOR);
+
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Addition.class, PLUS_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Subtraction.class, MINUS_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Multiplication.class, STAR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Division.class, DIV_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Modulo.class, MOD_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.RightShift.class, SR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.LeftShift.class, SL_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.UnsignedRightShift.class, BSR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.BitAnd.class, BAND_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.BitXor.class, BXOR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.BitOr.class, BOR_ASSIGN);
+    }
+
+    @Nullable
+    public static OperatorToken of(J.Binary.Operator operator) {
+        return BY_OPERATOR_CLASS.get(operator.getClass());
+    }
+
+    @Nullable
+    public static OperatorToken of(J.AssignOp.Operator operator) {
+        return BY_OPERATOR_CLASS.get(operator.getClass());
+    }
 }
@@ -15,6 +15,12 @@
  */
 package org.openrewrite.checkstyle.policy;
 
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public enum ParenthesesToken {
     EXPR,
     IDENT,
@@ -38,5 +44,26 @@ public enum ParenthesesToken {
     SL_ASSIGN,
     SR_ASSIGN,
     STAR_ASSIGN,
-    LAMBDA
+    LAMBDA;
+
+    private static final Map<Class<?>, ParenthesesToken> BY_OPERATOR_CLASS = new IdentityHashMap<>();
+
+    static {
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.BitAnd.class, BAND_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.BitOr.class, BOR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.UnsignedRightShift.class, BSR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.BitXor.class, BXOR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.RightShift.class, SR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.LeftShift.class, SL_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Subtraction.class, MINUS_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Division.class, DIV_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Addition.class, PLUS_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Multiplication.class, STAR_ASSIGN);
+        BY_OPERATOR_CLASS.put(J.AssignOp.Operator.Modulo.class, MOD_ASSIGN);
+    }
+
+    @Nullable
+    public static ParenthesesToken of(J.AssignOp.Operator operator) {
+        return BY_OPERATOR_CLASS.get(operator.getClass());
+    }
 }
@@ -15,6 +15,12 @@
  */
 package org.openrewrite.checkstyle.policy;
 
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public enum PunctuationToken {
     COMMA,
     SEMI,
@@ -36,5 +42,23 @@ public enum PunctuationToken {
     TYPECAST,
     ARRAY_DECLARATOR,
     INDEX_OP,
-    LITERAL_SYNCHRONIZED
+    LITERAL_SYNCHRONIZED;
+
+    private static final Map<Class<?>, PunctuationToken> BY_OPERATOR_CLASS = new IdentityHashMap<>();
+
+    static {
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.PreIncrement.class, INC);
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.PreDecrement.class, DEC);
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.PostIncrement.class, POST_INC);
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.PostDecrement.class, POST_DEC);
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.Positive.class, UNARY_PLUS);
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.Negative.class, UNARY_MINUS);
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.Complement.class, BNOT);
+        BY_OPERATOR_CLASS.put(J.Unary.Operator.Not.class, LNOT);
+    }
+
+    @Nullable
+    public static PunctuationToken of(J.Unary.Operator operator) {
+        return BY_OPERATOR_CLASS.get(operator.getClass());
+    }
 }
@@ -21,8 +21,6 @@ import org.openrewrite.java.tree.J;
 
 import java.util.Set;
 
-import static java.util.Arrays.stream;
-
 public enum Token {
     ANNOTATION_DEF((t, p) -> t instanceof J.Annotation),
     CLASS_DEF((t, p) -> t instanceof J.ClassDecl && ((J.ClassDecl) t).getKind() instanceof J.ClassDecl.Kind.Class),
@@ -31,13 +29,9 @@ public enum Token {
     ENUM_DEF((t, p) -> t instanceof J.ClassDecl && ((J.ClassDecl) t).getKind() instanceof J.ClassDecl.Kind.Enum),
     INTERFACE_DEF((t, p) -> t instanceof J.ClassDecl && ((J.ClassDecl) t).getKind() instanceof J.ClassDecl.Kind.Interface),
     LAMBDA((t, p) -> t instanceof J.Lambda),
-    LITERAL_CASE((t, p) -> t instanceof J.Case &&
-            (((J.Case) t).getPattern() != null &&
-                    !"default".equals(((J.Case) t).getPattern().printTrimmed()))),
+    LITERAL_CASE((t, p) -> t instanceof J.Case && ((J.Case) t).getPattern() != null && !isDefault((J.Case) t)),
     LITERAL_CATCH((t, p) -> t instanceof J.Try.Catch),
-    LITERAL_DEFAULT((t, p) -> t instanceof J.Case &&
-            (((J.Case) t).getPattern() != null &&
-                    "default".equals(((J.Case) t).getPattern().printTrimmed()))),
+    LITERAL_DEFAULT((t, p) -> t instanceof J.Case && isDefault((J.Case) t)),
     LITERAL_DO((t, p) -> t instanceof J.DoWhileLoop),
     LITERAL_ELSE((t, p) -> t instanceof J.If.Else),
     LITERAL_FINALLY((t, p) -> t instanceof J.Try.Finally),
@@ -76,7 +70,29 @@ public enum Token {
         return matcher;
     }
 
+    /**
+     * The pattern of a default case is the identifier {@code default}, which is checked by name here rather
+     * than by printing the pattern.
+     */
+    private static boolean isDefault(J.Case caze) {
+        return caze.getPattern() instanceof J.Ident && "default".equals(((J.Ident) caze.getPattern()).getSimpleName());
+    }
+
     public static boolean matchesOneOf(Set<Token> configured, Cursor cursor, Token... tokens) {
-        return stream(tokens).anyMatch(token -> configured.contains(token) && token.getMatcher().matches(cursor));
+        for (Token token : tokens) {
+            if (configured.contains(token) && token.matcher.matches(cursor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean matchesAny(Set<Token> configured, Cursor cursor) {
+        for (Token token : configured) {
+            if (token.matcher.matches(cursor)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
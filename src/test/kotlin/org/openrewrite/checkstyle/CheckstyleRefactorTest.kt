@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+
+class CheckstyleRefactorTest {
+    private val parser = JavaParser.fromJavaVersion().build()
+
+    private fun checks(): List<CheckstyleRefactorVisitor> =
+            listOf(LeftCurly(), NeedBraces(), FinalClass()).onEach {
+                it.setConfig("""
+                    <?xml version="1.0"?>
+                    <!DOCTYPE module PUBLIC
+                        "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                        "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                    <module name="Checker">
+                        <module name="TreeWalker">
+                            <module name="LeftCurly"/>
+                            <module name="NeedBraces"/>
+                            <module name="FinalClass"/>
+                        </module>
+                    </module>
+                """.trimIndent().trim())
+            }
+
+    @ParameterizedTest
+    @ValueSource(booleans = [false, true])
+    fun fixesUntilNothingIsLeftToFix(fused: Boolean) {
+        val cu = parser.parse("""
+            public class A {
+                private A() {
+                }
+
+                int n;
+                {
+                    if (n == 0) n++;
+                }
+            }
+        """.trimIndent())[0]
+
+        val result = CheckstyleRefactor(checks(), fused).fix(cu)
+
+        assertThat(result.fixed.printTrimmed()).isEqualTo("""
+            public final class A {
+                private A() {
+                }
+
+                int n;
+                {
+                    if (n == 0) {
+                        n++;
+                    }
+                }
+            }
+        """.trimIndent())
+        assertThat(result.rulesThatMadeChanges).containsExactlyInAnyOrder("NeedBraces", "FinalClass")
+        assertThat(result.rounds).isEqualTo(2)
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = [false, true])
+    fun oneRoundWhenNothingToFix(fused: Boolean) {
+        val cu = parser.parse("""
+            public class A {
+                public A() {
+                }
+            }
+        """.trimIndent())[0]
+
+        val result = CheckstyleRefactor(checks(), fused).fix(cu)
+
+        assertThat(result.fixed).isSameAs(cu)
+        assertThat(result.rulesThatMadeChanges).isEmpty()
+        assertThat(result.rounds).isEqualTo(1)
+    }
+
+    /**
+     * Renames class A to B and B to A, so that every round undoes the previous one.
+     */
+    private class Toggle : CheckstyleRefactorVisitor() {
+        override fun visitClassDecl(classDecl: J.ClassDecl): J {
+            val c = super.visitClassDecl(classDecl) as J.ClassDecl
+            return c.withName(c.name.withName(if (c.name.simpleName == "A") "B" else "A"))
+        }
+    }
+
+    /**
+     * Keeps making the class name longer, so it never converges.
+     */
+    private class Grow : CheckstyleRefactorVisitor() {
+        override fun visitClassDecl(classDecl: J.ClassDecl): J {
+            val c = super.visitClassDecl(classDecl) as J.ClassDecl
+            return c.withName(c.name.withName(c.name.simpleName + "A"))
+        }
+    }
+
+    @Test
+    fun detectOscillation() {
+        val cu = parser.parse("class A {}")[0]
+
+        val result = CheckstyleRefactor(listOf(Toggle())).fix(cu)
+
+        assertThat(result.oscillatingRules).containsExactly("Toggle")
+        assertThat(result.rounds).isEqualTo(2)
+        assertThat(result.roundsByRule).containsEntry("Toggle", 2)
+    }
+
+    @Test
+    fun stopAtRoundLimit() {
+        val cu = parser.parse("class A {}")[0]
+
+        val result = CheckstyleRefactor(listOf(Grow())).setMaxRounds(3).fix(cu)
+
+        assertThat(result.fixed.printTrimmed()).isEqualTo("class AAAA {}")
+        assertThat(result.oscillatingRules).isEmpty()
+        assertThat(result.rounds).isEqualTo(3)
+        assertThat(result.roundsByRule).containsEntry("Grow", 3)
+    }
+}
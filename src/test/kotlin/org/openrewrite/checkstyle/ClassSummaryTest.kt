@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+
+class ClassSummaryTest {
+    private val parser = JavaParser.fromJavaVersion().build()
+
+    private val classes = parser.parse("""
+        public class A {
+            int n, m;
+
+            private A() {
+            }
+
+            public A(int n) {
+                this.n = n;
+            }
+
+            protected void finalize() {
+            }
+        }
+
+        class B {
+            private B() {
+            }
+
+            static void foo() {
+            }
+        }
+    """.trimIndent())[0].classes
+
+    @Test
+    fun constructors() {
+        val (a, b) = classes.map { ClassSummary(it) }
+        assertThat(a.constructors).hasSize(2)
+        assertThat(a.hasNonPrivateConstructor()).isTrue()
+        assertThat(b.hasNonPrivateConstructor()).isFalse()
+    }
+
+    @Test
+    fun onlyConstructorsAndStaticMethods() {
+        val (a, b) = classes.map { ClassSummary(it) }
+        assertThat(a.hasOnlyConstructorsAndStaticMethods()).isFalse()
+        assertThat(b.hasOnlyConstructorsAndStaticMethods()).isTrue()
+    }
+
+    @Test
+    fun fieldsAndFinalizer() {
+        val (a, b) = classes.map { ClassSummary(it) }
+        assertThat(a.fields.map { it.simpleName }).containsExactly("n", "m")
+        assertThat(a.finalizer?.simpleName).isEqualTo("finalize")
+        assertThat(b.fields).isEmpty()
+        assertThat(b.finalizer).isNull()
+    }
+
+    @Test
+    fun summariesAreSharedUntilTheClassIsEdited() {
+        val summaries = ClassSummaries()
+        val a = classes[0]
+        assertThat(summaries.of(a)).isSameAs(summaries.of(a))
+        assertThat(summaries.of(a.withBody(a.body.withStatements(a.body.statements.subList(0, 1)))))
+                .isNotSameAs(summaries.of(a))
+    }
+}
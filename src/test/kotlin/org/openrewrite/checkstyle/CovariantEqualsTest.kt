@@ -15,7 +15,11 @@
  */
 package org.openrewrite.checkstyle
 
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
+import org.openrewrite.Tree
+import org.openrewrite.java.AbstractJavaSourceVisitor
+import java.util.UUID
 
 open class CovariantEqualsTest : CheckstyleRefactorVisitorTest(CovariantEquals()) {
     @Test
@@ -43,4 +47,81 @@ open class CovariantEqualsTest : CheckstyleRefactorVisitorTest(CovariantEquals()
                 }
             """
     )
+
+    @Test
+    fun replaceEveryCovariantEqualsInTheSameFile() = assertRefactored(
+            before = """
+                class Test {
+                    int n;
+                
+                    public boolean equals(Test t) {
+                        return n == t.n;
+                    }
+                }
+                
+                class Other {
+                    int m;
+                
+                    public boolean equals(Other o) {
+                        return m == o.m;
+                    }
+                }
+            """,
+            after = """
+                class Test {
+                    int n;
+                
+                    @Override
+                    public boolean equals(Object o) {
+                        if (this == o) return true;
+                        if (o == null || getClass() != o.getClass()) return false;
+                        Test t = (Test) o;
+                        return n == t.n;
+                    }
+                }
+                
+                class Other {
+                    int m;
+                
+                    @Override
+                    public boolean equals(Object other) {
+                        if (this == other) return true;
+                        if (other == null || getClass() != other.getClass()) return false;
+                        Other o = (Other) other;
+                        return m == o.m;
+                    }
+                }
+            """
+    )
+
+    @Test
+    fun everyInstanceOfTheEqualsBodyHasFreshIds() {
+        val cu = parser.parse("""
+            class Test {
+                public boolean equals(Test t) {
+                    return true;
+                }
+            }
+
+            class Other {
+                public boolean equals(Other o) {
+                    return true;
+                }
+            }
+        """.trimIndent())[0]
+
+        val fixed = CheckstyleRefactor(visitors.filterIsInstance<CheckstyleRefactorVisitor>()).fix(cu).fixed
+
+        val ids = mutableListOf<UUID>()
+        object : AbstractJavaSourceVisitor<Any?>() {
+            override fun defaultTo(t: Tree?): Any? = null
+
+            override fun visit(tree: Tree?): Any? {
+                tree?.let { ids.add(it.id) }
+                return super.visit(tree)
+            }
+        }.visit(fixed)
+
+        assertThat(ids).doesNotHaveDuplicates()
+    }
 }
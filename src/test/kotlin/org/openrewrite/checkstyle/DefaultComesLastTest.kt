@@ -203,4 +203,36 @@ open class DefaultComesLastTest : CheckstyleRefactorVisitorTest(DefaultComesLast
                 }
             """
     )
+
+    @Test
+    fun moveDefaultGroupedWithTheCaseAfterIt() = assertRefactored(
+            before = """
+                class Test {
+                    int n;
+                    {
+                        switch (n) {
+                            case 1:
+                                break;
+                            default:
+                            case 2:
+                                System.out.println("case2");
+                        }
+                    }
+                }
+            """,
+            after = """
+                class Test {
+                    int n;
+                    {
+                        switch (n) {
+                            case 1:
+                                break;
+                            case 2:
+                            default:
+                                System.out.println("case2");
+                        }
+                    }
+                }
+            """
+    )
 }
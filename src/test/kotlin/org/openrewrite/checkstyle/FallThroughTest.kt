@@ -93,4 +93,21 @@ open class FallThroughTest : CheckstyleRefactorVisitorTest(FallThrough()) {
                 }
             """
     )
+
+    @Test
+    fun throwDoesntFallThrough() = assertUnchanged(
+            before = """
+                public class A {
+                    int i;
+                    {
+                        switch (i) {
+                        case 0:
+                            throw new IllegalStateException();
+                        case 1:
+                            i++;
+                        }
+                    }
+                }
+            """
+    )
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.Parser
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.JavaType
+import java.nio.file.Paths
+
+class FieldReferenceIndexTest {
+    private val parser = JavaParser.fromJavaVersion().build()
+
+    private val sources = listOf(
+            """
+                package a;
+                public class A {
+                    public static int MY_COUNT;
+                    public static int OTHER_COUNT;
+                }
+            """.trimIndent(),
+            """
+                package b;
+                import a.A;
+                public class B {
+                    int n = A.MY_COUNT;
+                }
+            """.trimIndent(),
+            """
+                package b;
+                import a.A;
+                public class C {
+                    int n = A.OTHER_COUNT;
+                }
+            """.trimIndent(),
+            """
+                package c;
+                import static a.A.MY_COUNT;
+                public class D {
+                    int n = MY_COUNT + 1;
+
+                    int count() {
+                        return MY_COUNT;
+                    }
+                }
+            """.trimIndent(),
+            """
+                package c;
+                public class E extends a.A {
+                }
+            """.trimIndent(),
+            """
+                package c;
+                public class F {
+                    int n = E.MY_COUNT;
+                }
+            """.trimIndent()
+    )
+
+    private val cus = parser.parse(*sources.toTypedArray())
+
+    @Test
+    fun referencingFiles() {
+        val index = FieldReferenceIndex.of(cus)
+        val a = JavaType.Class.build("a.A")
+
+        assertThat(index.getReferencingFiles(a, "MY_COUNT")).containsExactlyInAnyOrder(
+                cus[1].sourcePath.toString(), cus[3].sourcePath.toString(), cus[5].sourcePath.toString())
+        assertThat(index.getReferencingFiles(a, "NOT_REFERENCED")).isEmpty()
+    }
+
+    @Test
+    fun renameReferencesInOnlyTheFilesThatReferToRenamedFields() {
+        val index = FieldReferenceIndex.of(cus)
+        index.rename(JavaType.Class.build("a.A"), "MY_COUNT", "myCount")
+
+        val changed = index.renameReferences(cus)
+
+        assertThat(changed).hasSize(3)
+        assertThat(changed[0].print()).contains("A.myCount")
+    }
+
+    @Test
+    fun renameStaticImportsAndTheirUses() {
+        val index = FieldReferenceIndex.of(cus)
+        index.rename(JavaType.Class.build("a.A"), "MY_COUNT", "myCount")
+
+        val d = index.renameReferences(cus).first { it.sourcePath == cus[3].sourcePath }
+
+        assertThat(d.print()).isEqualTo("""
+            package c;
+            import static a.A.myCount;
+            public class D {
+                int n = myCount + 1;
+
+                int count() {
+                    return myCount;
+                }
+            }
+        """.trimIndent())
+    }
+
+    @Test
+    fun renameReferencesQualifiedWithASubclass() {
+        val index = FieldReferenceIndex.of(cus)
+        index.rename(JavaType.Class.build("a.A"), "MY_COUNT", "myCount")
+
+        val f = index.renameReferences(cus).first { it.sourcePath == cus[5].sourcePath }
+
+        assertThat(f.print()).contains("E.myCount")
+    }
+
+    @Test
+    fun staticVariableNameRecordsRenamesOfFieldsOtherFilesCanSee() {
+        val index = FieldReferenceIndex.of(cus)
+        val staticVariableName = StaticVariableName()
+        staticVariableName.setConfig("""
+            <?xml version="1.0"?>
+            <!DOCTYPE module PUBLIC
+                "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                "https://checkstyle.org/dtds/configuration_1_3.dtd">
+            <module name="Checker">
+                <module name="TreeWalker">
+                    <module name="StaticVariableName"/>
+                </module>
+            </module>
+        """.trimIndent().trim())
+        staticVariableName.setFieldReferenceIndex(index)
+
+        CheckstyleRefactor(listOf(staticVariableName)).fix(cus[0])
+
+        val changed = index.renameReferences(cus)
+        assertThat(changed.map { it.print() })
+                .anyMatch { it.contains("A.myCount") }
+                .anyMatch { it.contains("A.otherCount") }
+    }
+
+    /**
+     * Like the driver, which parses each source file on its own, so that the qualifiers of references to fields
+     * declared in other files have no types.
+     */
+    @Test
+    fun renameReferencesInFilesParsedOnTheirOwn() {
+        val separately = sources.mapIndexed { i, source ->
+            JavaParser.fromJavaVersion().build().parseInputs(
+                    listOf(Parser.Input(Paths.get("Source$i.java")) { source.byteInputStream() }),
+                    Paths.get("").toAbsolutePath()
+            )[0]
+        }
+        val index = FieldReferenceIndex.of(separately)
+        index.rename(JavaType.Class.build("a.A"), "MY_COUNT", "myCount")
+
+        val changed = index.renameReferences(separately).map { it.print() }
+
+        assertThat(changed).anyMatch { it.contains("int n = A.myCount;") }
+        assertThat(changed).anyMatch {
+            it.contains("import static a.A.myCount;") && it.contains("int n = myCount + 1;") &&
+                    it.contains("return myCount;")
+        }
+    }
+
+    @Test
+    fun dontRenameVariablesThatShadowAStaticImport() {
+        val withShadow = parser.parse(sources[0], """
+            package c;
+            import static a.A.MY_COUNT;
+            public class G {
+                int count() {
+                    int MY_COUNT = 2;
+                    return MY_COUNT;
+                }
+
+                int imported() {
+                    return MY_COUNT;
+                }
+            }
+        """.trimIndent())
+        val index = FieldReferenceIndex.of(withShadow)
+        index.rename(JavaType.Class.build("a.A"), "MY_COUNT", "myCount")
+
+        val g = index.renameReferences(withShadow).first { it.sourcePath == withShadow[1].sourcePath }
+
+        assertThat(g.print()).isEqualTo("""
+            package c;
+            import static a.A.myCount;
+            public class G {
+                int count() {
+                    int MY_COUNT = 2;
+                    return MY_COUNT;
+                }
+
+                int imported() {
+                    return myCount;
+                }
+            }
+        """.trimIndent())
+    }
+}
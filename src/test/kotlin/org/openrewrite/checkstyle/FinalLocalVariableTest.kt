@@ -60,4 +60,36 @@ open class FinalLocalVariableTest: CheckstyleRefactorVisitorTest(FinalLocalVaria
                 }
             """
     )
+
+    @Test
+    fun assignmentsInNestedScopes() = assertRefactored(
+            before = """
+                public class A {
+                    void foo() {
+                        int n = 1;
+                        int m = 0;
+                        if (m > 0) {
+                            n = 2;
+                            int k = 0;
+                        }
+                        for (int i = 0; i < m; i++) {
+                        }
+                    }
+                }
+            """,
+            after = """
+                public class A {
+                    void foo() {
+                        int n = 1;
+                        final int m = 0;
+                        if (m > 0) {
+                            n = 2;
+                            final int k = 0;
+                        }
+                        for (int i = 0; i < m; i++) {
+                        }
+                    }
+                }
+            """
+    )
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.RefactorVisitor
+import org.openrewrite.RefactorVisitorTestForParser
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+
+class FusedCheckstyleVisitorTest : RefactorVisitorTestForParser<J.CompilationUnit> {
+    override val parser: JavaParser = JavaParser.fromJavaVersion().build()
+    override val visitors: Iterable<RefactorVisitor<*>> = listOf(FusedCheckstyleVisitor(checks()))
+
+    private fun checks(): List<CheckstyleRefactorVisitor> =
+            listOf(SimplifyBooleanExpression(), StringLiteralEquality(), FinalClass()).onEach {
+                it.setConfig("""
+                    <?xml version="1.0"?>
+                    <!DOCTYPE module PUBLIC
+                        "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                        "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                    <module name="Checker">
+                        <module name="TreeWalker">
+                            <module name="SimplifyBooleanExpression"/>
+                            <module name="StringLiteralEquality"/>
+                            <module name="FinalClass"/>
+                        </module>
+                    </module>
+                """.trimIndent().trim())
+            }
+
+    private val source = """
+        public class A {
+            private A() {
+            }
+
+            String s;
+            {
+                boolean b = !false;
+                if(s == "test");
+            }
+        }
+    """.trimIndent()
+
+    @Test
+    fun allChecksApplyInOneTraversal() = assertRefactored(
+            before = source,
+            after = """
+                public final class A {
+                    private A() {
+                    }
+
+                    String s;
+                    {
+                        boolean b = true;
+                        if("test".equals(s));
+                    }
+                }
+            """
+    )
+
+    @Test
+    fun visitsEachNodeOnce() {
+        val cu = parser.parse(source)[0]
+
+        val separately = checks()
+        separately.forEach { it.visit(cu) }
+        val nodesVisitedSeparately = separately.sumOf { it.nodesVisited }
+
+        val fused = FusedCheckstyleVisitor(checks())
+        fused.visit(cu)
+
+        assertThat(fused.nodesVisited * separately.size).isEqualTo(nodesVisitedSeparately)
+        assertThat(fused.rulesThatMadeChanges)
+                .containsExactlyInAnyOrder("SimplifyBooleanExpression", "StringLiteralEquality", "FinalClass")
+    }
+
+    @Test
+    fun variablesAddedByAnEarlierCheckAreLeftForTheNextRound() {
+        val cu = parser.parse("""
+            class Test {
+                int t;
+
+                public boolean equals(Test t) {
+                    return this.t == t.t;
+                }
+            }
+        """.trimIndent())[0]
+
+        val checks = listOf(CovariantEquals(), HiddenField()).onEach {
+            it.setConfig("""
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <module name="TreeWalker">
+                        <module name="CovariantEquals"/>
+                        <module name="HiddenField"/>
+                    </module>
+                </module>
+            """.trimIndent().trim())
+        }
+
+        val fused = FusedCheckstyleVisitor(checks)
+        val fixed = fused.visit(cu)
+
+        assertThat(fixed.print()).contains("public boolean equals(Object o)", "Test t = (Test) o;")
+        assertThat(fused.rulesThatMadeChanges).containsExactly("CovariantEquals")
+    }
+}
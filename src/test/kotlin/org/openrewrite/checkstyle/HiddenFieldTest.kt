@@ -63,6 +63,86 @@ open class HiddenFieldTest : CheckstyleRefactorVisitorTest(HiddenField()) {
             """
     )
 
+    @Test
+    fun renameLambdaParameters() = assertRefactored(
+            before = """
+                import java.util.function.IntUnaryOperator;
+                public class A {
+                    int n;
+                    IntUnaryOperator f = n -> 1;
+                }
+            """,
+            after = """
+                import java.util.function.IntUnaryOperator;
+                public class A {
+                    int n;
+                    IntUnaryOperator f = n1 -> 1;
+                }
+            """
+    )
+
+    @Test
+    fun countRenamesOfOtherShadowsOfTheSameField() = assertRefactored(
+            before = """
+                public class A {
+                    int n;
+    
+                    public void foo(int n) {
+                        class C {
+                            void bar(int n) {
+                            }
+                        }
+                    }
+    
+                    public void baz(int n) {
+                    }
+                }
+            """,
+            after = """
+                public class A {
+                    int n;
+    
+                    public void foo(int n1) {
+                        class C {
+                            void bar(int n2) {
+                            }
+                        }
+                    }
+    
+                    public void baz(int n1) {
+                    }
+                }
+            """
+    )
+
+    @Test
+    fun dontRenameToANameDeclaredInANestedScope() = assertRefactored(
+            before = """
+                public class A {
+                    int n;
+    
+                    public void foo(int n) {
+                        int n1 = 0;
+                        if (n1 == 0) {
+                            int n2 = 0;
+                        }
+                    }
+                }
+            """,
+            after = """
+                public class A {
+                    int n;
+    
+                    public void foo(int n3) {
+                        int n1 = 0;
+                        if (n1 == 0) {
+                            int n2 = 0;
+                        }
+                    }
+                }
+            """
+    )
+
     @Test
     fun ignorePattern() {
         setProperties("ignoreFormat" to "\\w+")
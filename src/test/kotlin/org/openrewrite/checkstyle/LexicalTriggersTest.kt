@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.nio.ByteBuffer
+
+class LexicalTriggersTest {
+    private val fallThrough = FallThrough()
+    private val noFinalizer = NoFinalizer()
+    private val simplifyBooleanReturn = SimplifyBooleanReturn()
+    private val emptyBlock = EmptyBlock()
+
+    private val triggers = LexicalTriggers.compile(listOf(fallThrough, noFinalizer, simplifyBooleanReturn, emptyBlock))
+
+    @Test
+    fun checksWithoutTriggersAlwaysApply() {
+        assertThat(triggers.applicableTo("public class A {}".toByteArray()))
+                .containsExactly(emptyBlock)
+    }
+
+    @Test
+    fun onlyTriggeredChecksApply() {
+        assertThat(triggers.applicableTo("""
+            public class A {
+                int n;
+                { switch (n) { case 0: n++; } }
+            }
+        """.trimIndent().toByteArray())).containsExactly(fallThrough, emptyBlock)
+    }
+
+    @Test
+    fun anyTriggerOfACheckIsEnough() {
+        assertThat(triggers.applicableTo("boolean b() { return false; }".toByteArray()))
+                .containsExactly(simplifyBooleanReturn, emptyBlock)
+    }
+
+    @Test
+    fun overlappingTriggers() {
+        assertThat(triggers.applicableTo("finalizswitchfinalize".toByteArray()))
+                .containsExactly(fallThrough, noFinalizer, emptyBlock)
+    }
+
+    @Test
+    fun onlyScansBetweenPositionAndLimit() {
+        val source = ByteBuffer.wrap("switch finalize".toByteArray())
+        source.position(6)
+
+        assertThat(triggers.applicableTo(source)).containsExactly(noFinalizer, emptyBlock)
+        assertThat(source.position()).isEqualTo(6)
+    }
+
+    @Test
+    fun nothingToDoWhenNoCheckCouldApply() {
+        assertThat(LexicalTriggers.compile(listOf(fallThrough, noFinalizer))
+                .applicableTo("public class A {}".toByteArray()))
+                .isEmpty()
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+
+class LineMapTest {
+    private val parser = JavaParser.fromJavaVersion().build()
+
+    private val cu = parser.parse("""
+        public class A {
+            void foo(boolean b1, boolean b2) {
+                if (b1) { }
+                if (b1 &&
+                        b2) {
+                }
+                while (b1) {
+                    b1 = false;
+                }
+            }
+        }
+    """.trimIndent())[0]
+
+    private val statements = cu.classes[0].methods[0].body!!.statements
+
+    @Test
+    fun spansMultipleLines() {
+        val lineMap = LineMap()
+        lineMap.index(cu)
+
+        val (singleLine, multiLineCondition, multiLineBody) = statements
+        assertThat(lineMap.spansMultipleLines(singleLine as J.If, null)).isFalse()
+        assertThat(lineMap.spansMultipleLines(multiLineCondition as J.If, null)).isTrue()
+        assertThat(lineMap.spansMultipleLines(multiLineBody as J.WhileLoop, null)).isTrue()
+    }
+
+    @Test
+    fun skippedSubtreeDoesntCount() {
+        val lineMap = LineMap()
+        lineMap.index(cu)
+
+        val multiLineCondition = statements[1] as J.If
+        val multiLineBody = statements[2] as J.WhileLoop
+        assertThat(lineMap.spansMultipleLines(multiLineCondition, multiLineCondition.thenPart)).isTrue()
+        assertThat(lineMap.spansMultipleLines(multiLineBody, multiLineBody.body)).isFalse()
+    }
+
+    @Test
+    fun onSameLine() {
+        val lineMap = LineMap()
+        lineMap.index(cu)
+
+        val singleLine = statements[0] as J.If
+        assertThat(lineMap.onSameLine(singleLine, singleLine.thenPart)).isTrue()
+        assertThat(lineMap.onSameLine(singleLine, statements[1])).isFalse()
+    }
+
+    @Test
+    fun treesNotInTheCompilationUnitAreVisited() {
+        val lineMap = LineMap()
+        lineMap.index(cu)
+
+        val multiLineBody = statements[2] as J.WhileLoop
+        assertThat(lineMap.spansMultipleLines(multiLineBody.withBody(multiLineBody.body.withPrefix("  ")), null)).isTrue()
+    }
+}
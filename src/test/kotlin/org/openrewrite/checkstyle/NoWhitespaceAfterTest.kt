@@ -127,6 +127,31 @@ open class NoWhitespaceAfterTest: CheckstyleRefactorVisitorTest(NoWhitespaceAfte
         )
     }
 
+    @Test
+    fun onlyConfiguredUnaryOperators() {
+        setProperties("tokens" to "INC")
+        assertRefactored(
+                before = """
+                    public class A {
+                        void foo(int n) {
+                            ++ n;
+                            -- n;
+                            n = - n;
+                        }
+                    }
+                """,
+                after = """
+                    public class A {
+                        void foo(int n) {
+                            ++n;
+                            -- n;
+                            n = - n;
+                        }
+                    }
+                """
+        )
+    }
+
     /**
      * Evidently checkstyle doesn't recognize these as new arrays.
      */
@@ -108,6 +108,29 @@ open class NoWhitespaceBeforeTest: CheckstyleRefactorVisitorTest(NoWhitespaceBef
         )
     }
 
+    @Test
+    fun onlyConfiguredUnaryOperators() {
+        setProperties("tokens" to "POST_INC")
+        assertRefactored(
+                before = """
+                    public class A {
+                        void foo(int n) {
+                            n ++;
+                            n --;
+                        }
+                    }
+                """,
+                after = """
+                    public class A {
+                        void foo(int n) {
+                            n++;
+                            n --;
+                        }
+                    }
+                """
+        )
+    }
+
     @Test
     fun dontStripLastParameterSuffixInMethodDeclaration() = assertUnchanged(
             before = """
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+
+class NodeKindCensusTest {
+    private val parser = JavaParser.fromJavaVersion().build()
+
+    private val cu = parser.parse("""
+        public class A {
+            int n;
+
+            void foo() {
+                n++;
+            }
+
+            void bar(int m) {
+                switch (m) {
+                    case 1:
+                        n = m;
+                }
+            }
+        }
+    """.trimIndent())[0]
+
+    @Test
+    fun kindsPresent() {
+        val fallThrough = FallThrough()
+        val typecastParenPad = TypecastParenPad()
+        val census = NodeKindCensus.take(cu, listOf(fallThrough, typecastParenPad))
+
+        assertThat(census.isPresent(census.maskOf(fallThrough.consumedKinds))).isTrue()
+        assertThat(census.isPresent(census.maskOf(typecastParenPad.consumedKinds))).isFalse()
+    }
+
+    @Test
+    fun subtreesThatDontContainKinds() {
+        val census = NodeKindCensus.take(cu, listOf(FallThrough()))
+        val switchMask = census.maskOf(setOf(J.Switch::class.java))
+
+        val (foo, bar) = cu.classes[0].methods
+        assertThat(census.mayContain(cu, switchMask)).isTrue()
+        assertThat(census.mayContain(foo, switchMask)).isFalse()
+        assertThat(census.mayContain(bar, switchMask)).isTrue()
+    }
+
+    @Test
+    fun rebuiltSubtreesMayContainAnyKind() {
+        val census = NodeKindCensus.take(cu, listOf(FallThrough()))
+        val switchMask = census.maskOf(setOf(J.Switch::class.java))
+
+        val foo = cu.classes[0].methods[0]
+        assertThat(census.mayContain(foo.withName(foo.name.withName("baz")), switchMask)).isTrue()
+    }
+
+    @Test
+    fun producedKindsArePresent() {
+        val census = NodeKindCensus.take(cu, listOf(TypecastParenPad()))
+        val typeCastMask = census.maskOf(setOf(J.TypeCast::class.java))
+
+        census.produced(setOf(J.TypeCast::class.java))
+        assertThat(census.isPresent(typeCastMask)).isTrue()
+    }
+
+    @Test
+    fun checksWithNothingToConsumeAreSkipped() {
+        val typecastParenPad = TypecastParenPad()
+        typecastParenPad.setConfig("""
+            <?xml version="1.0"?>
+            <!DOCTYPE module PUBLIC
+                "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                "https://checkstyle.org/dtds/configuration_1_3.dtd">
+            <module name="Checker">
+                <module name="TreeWalker">
+                    <module name="TypecastParenPad"/>
+                </module>
+            </module>
+        """.trimIndent().trim())
+
+        val result = CheckstyleRefactor(listOf(typecastParenPad)).fix(cu)
+
+        assertThat(result.fixed).isSameAs(cu)
+        assertThat(typecastParenPad.nodesVisited).isZero()
+    }
+}
@@ -152,4 +152,37 @@ open class OperatorWrapTest: CheckstyleRefactorVisitorTest(OperatorWrap()) {
                 """
         )
     }
+
+    @Test
+    fun onlyConfiguredOperators() {
+        setProperties("tokens" to "PLUS,STAR_ASSIGN")
+        assertRefactored(
+                before = """
+                    class A {
+                        {
+                            int n = 1 +
+                                2 -
+                                3;
+                            n *=
+                                2;
+                            n /=
+                                2;
+                        }
+                    }
+                """,
+                after = """
+                    class A {
+                        {
+                            int n = 1
+                                + 2 -
+                                3;
+                            n
+                                *= 2;
+                            n /=
+                                2;
+                        }
+                    }
+                """
+        )
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+
+class ParentIndexTest {
+    private val cu = JavaParser.fromJavaVersion().build().parse("""
+        public class A {
+            int n;
+
+            void foo() {
+                int m = 0;
+                m++;
+            }
+        }
+    """.trimIndent())[0]
+
+    private val parentIndex = ParentIndex().apply { index(cu) }
+
+    @Test
+    fun parents() {
+        val a = cu.classes[0]
+        val n = a.fields[0]
+
+        assertThat(parentIndex.getParent<J>(cu)).isNull()
+        assertThat(parentIndex.getParent<J>(a)).isSameAs(cu)
+        assertThat(parentIndex.getParent<J>(n)).isSameAs(a.body)
+        assertThat(parentIndex.getParent<J>(n.vars[0])).isSameAs(n)
+    }
+
+    @Test
+    fun firstEnclosing() {
+        val foo = cu.classes[0].methods[0]
+        val m = (foo.body!!.statements[0] as J.VariableDecls).vars[0]
+
+        assertThat(parentIndex.firstEnclosing(m, J.MethodDecl::class.java)).isSameAs(foo)
+        assertThat(parentIndex.firstEnclosing(m, J.Block::class.java)).isSameAs(foo.body)
+        assertThat(parentIndex.firstEnclosing(foo, J.MethodDecl::class.java)).isSameAs(foo)
+        assertThat(parentIndex.firstEnclosing(m, J.Lambda::class.java)).isNull()
+    }
+
+    @Test
+    fun rebuiltNodesKeepTheirParents() {
+        val a = cu.classes[0]
+        val n = a.fields[0]
+
+        assertThat(parentIndex.getParent<J>(n.withPrefix(" "))).isSameAs(a.body)
+    }
+
+    @Test
+    fun nextStatement() {
+        val a = cu.classes[0]
+        val (m, increment) = a.methods[0].body!!.statements
+
+        assertThat(parentIndex.nextStatement(m)).isSameAs(increment)
+        assertThat(parentIndex.nextStatement(increment)).isNull()
+        assertThat(parentIndex.nextStatement(a.fields[0])).isSameAs(a.methods[0])
+        assertThat(parentIndex.nextStatement(a)).isNull()
+    }
+}
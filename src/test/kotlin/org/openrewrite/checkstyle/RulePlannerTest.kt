@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class RulePlannerTest {
+    @Test
+    fun producersRunBeforeConsumers() {
+        val leftCurly = LeftCurly()
+        val rightCurly = RightCurly()
+        val needBraces = NeedBraces()
+
+        assertThat(RulePlanner.plan(listOf(leftCurly, rightCurly, needBraces)))
+                .containsExactly(needBraces, leftCurly, rightCurly)
+    }
+
+    @Test
+    fun defaultComesLastBeforeFallThrough() {
+        val fallThrough = FallThrough()
+        val defaultComesLast = DefaultComesLast()
+
+        assertThat(RulePlanner.plan(listOf(fallThrough, defaultComesLast)))
+                .containsExactly(defaultComesLast, fallThrough)
+    }
+
+    @Test
+    fun emptyStatementBeforeEmptyBlock() {
+        val emptyBlock = EmptyBlock()
+        val emptyStatement = EmptyStatement()
+
+        assertThat(RulePlanner.plan(listOf(emptyBlock, emptyStatement)))
+                .containsExactly(emptyStatement, emptyBlock)
+    }
+
+    @Test
+    fun independentChecksKeepTheirOrder() {
+        val typecastParenPad = TypecastParenPad()
+        val noFinalizer = NoFinalizer()
+        val genericWhitespace = GenericWhitespace()
+
+        assertThat(RulePlanner.plan(listOf(typecastParenPad, noFinalizer, genericWhitespace)))
+                .containsExactly(typecastParenPad, noFinalizer, genericWhitespace)
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+import org.openrewrite.java.tree.Statement
+
+class StructuralEditsTest {
+    private val cu = JavaParser.fromJavaVersion().build().parse("""
+        public class A {
+            int n;
+
+            void foo() {
+                n++;
+                n--;
+                n = 0;
+            }
+        }
+    """.trimIndent())[0]
+
+    private val foo = cu.classes[0].methods[0]
+    private val statements = foo.body!!.statements
+
+    @Test
+    fun applyAllEditsInOnePass() {
+        val edits = StructuralEdits()
+                .delete(statements[0] as Statement)
+                .insertAfter(statements[1] as Statement, statements[0] as Statement)
+                .rename(cu.classes[0].fields[0].vars[0], "m")
+
+        assertThat(edits.isEmpty).isFalse()
+        assertThat((edits.visit(cu) as J.CompilationUnit).printTrimmed()).isEqualTo("""
+            public class A {
+                int m;
+
+                void foo() {
+                    n--;
+                    n++;
+                    n = 0;
+                }
+            }
+        """.trimIndent())
+        assertThat(edits.andThen()).isEmpty()
+    }
+
+    @Test
+    fun replacementsOfTheSameNodeCompose() {
+        val n = cu.classes[0].fields[0].vars[0]
+        val edits = StructuralEdits()
+                .rename(n, "m")
+                .replace(n) { v -> v.withName(v.name.withName(v.simpleName + "1")) }
+
+        assertThat((edits.visit(cu) as J.CompilationUnit).printTrimmed()).contains("int m1;")
+    }
+}
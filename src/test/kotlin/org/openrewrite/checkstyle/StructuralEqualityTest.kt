@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+
+class StructuralEqualityTest {
+    private val parser = JavaParser.fromJavaVersion().build()
+
+    private fun conditions(vararg conditions: String): List<J.Binary> {
+        val cu = parser.parse("""
+            class A {
+                String s;
+                int[] n;
+                boolean test(Object o) {
+                    return ${conditions.joinToString(" &&\n")};
+                }
+            }
+        """.trimIndent())[0]
+
+        val operands = mutableListOf<J.Binary>()
+        var expr = (cu.classes[0].methods[0].body!!.statements[0] as J.Return).expr
+        while (expr is J.Binary && expr.operator is J.Binary.Operator.And) {
+            operands.add(0, expr.right as J.Binary)
+            expr = expr.left
+        }
+        operands.add(0, expr as J.Binary)
+        return operands
+    }
+
+    @Test
+    fun equalIgnoringFormatting() {
+        val (c1, c2) = conditions("s.equals( \"a\" ) == (n [0] > 1)", "s . equals(\"a\")==(n[ 0 ]>1)")
+
+        val equality = StructuralEquality()
+        assertThat(equality.equal(c1, c2)).isTrue()
+        assertThat(equality.hash(c1)).isEqualTo(equality.hash(c2))
+    }
+
+    @Test
+    fun notEqual() {
+        val (c1, c2, c3, c4) = conditions("s.equals(\"a\") == true", "s.equals(\"b\") == true",
+                "s.equals(\"a\") != true", "s.isEmpty() == true")
+
+        val equality = StructuralEquality()
+        assertThat(equality.equal(c1, c2)).isFalse()
+        assertThat(equality.equal(c1, c3)).isFalse()
+        assertThat(equality.equal(c1, c4)).isFalse()
+    }
+
+    @Test
+    fun otherKindsComparedByPrintedForm() {
+        val (c1, c2, c3) = conditions("o == new int[] { 1 }", "o == new int[]{1}", "o == new int[]{2}")
+
+        val equality = StructuralEquality()
+        assertThat(equality.equal(c1, c2)).isTrue()
+        assertThat(equality.equal(c1, c3)).isFalse()
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.JavaType
+
+class SupertypeMemberCacheTest {
+    @Test
+    fun sharedBySubclassesOfTheSameSupertype() {
+        val cus = JavaParser.fromJavaVersion().build().parse(
+                "public class Base { protected int n; private int m; }",
+                "public class A extends Base {}",
+                "public class B extends Base {}"
+        )
+
+        val cache = SupertypeMemberCache()
+        val a = cache.getVisibleSupertypeMembers(cus[1].classes[0].type)
+        val b = cache.getVisibleSupertypeMembers(cus[2].classes[0].type)
+
+        assertThat(a).isSameAs(b)
+        assertThat(a.hasName("n")).isTrue()
+        assertThat(a.hasName("m")).isFalse()
+    }
+
+    @Test
+    fun sharedByHiddenFieldInstances() {
+        val cus = JavaParser.fromJavaVersion().build().parse(
+                "public class Base { protected int n; }",
+                "public class A extends Base { void foo(int n) {} }",
+                "public class B extends Base { void foo(int n) {} }"
+        )
+
+        val looked = mutableListOf<SupertypeMemberCache.Members>()
+        val cache = object : SupertypeMemberCache() {
+            override fun getVisibleSupertypeMembers(type: JavaType?): Members =
+                    super.getVisibleSupertypeMembers(type).also { looked.add(it) }
+        }
+
+        val a = hiddenField(cache)
+        val b = hiddenField(cache)
+        CheckstyleRefactor(listOf(a)).fix(cus[1])
+        CheckstyleRefactor(listOf(b)).fix(cus[2])
+
+        assertThat(looked).hasSizeGreaterThanOrEqualTo(2)
+        assertThat(looked).allMatch { it === looked[0] }
+    }
+
+    private fun hiddenField(cache: SupertypeMemberCache) = HiddenField().apply {
+        setConfig("""
+            <?xml version="1.0"?>
+            <!DOCTYPE module PUBLIC
+                "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                "https://checkstyle.org/dtds/configuration_1_3.dtd">
+            <module name="Checker">
+                <module name="TreeWalker">
+                    <module name="HiddenField"/>
+                </module>
+            </module>
+        """.trimIndent().trim())
+        setSupertypeMemberCache(cache)
+    }
+}
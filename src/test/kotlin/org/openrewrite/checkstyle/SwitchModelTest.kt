@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+
+class SwitchModelTest {
+    private val parser = JavaParser.fromJavaVersion().build()
+
+    private val switch = parser.parse("""
+        public class A {
+            void foo(int n) {
+                switch (n) {
+                    case 1:
+                    case 2:
+                        n++;
+                        // falls through
+                    default:
+                        n++;
+                        break;
+                    case 3:
+                        throw new IllegalStateException();
+                }
+            }
+        }
+    """.trimIndent())[0].classes[0].methods[0].body!!.statements[0] as J.Switch
+
+    private val model = SwitchModel(switch)
+
+    @Test
+    fun defaultCase() {
+        assertThat(model.defaultIndex).isEqualTo(2)
+        assertThat(model.defaultCase).isSameAs(switch.cases.statements[2])
+        assertThat(model.isLast(model.defaultIndex)).isFalse()
+    }
+
+    @Test
+    fun caseGroups() {
+        assertThat(model.getGroupStart(1)).isEqualTo(0)
+        assertThat(model.getGroupEnd(0)).isEqualTo(1)
+        assertThat(model.getGroupStart(2)).isEqualTo(2)
+        assertThat(model.getGroupEnd(2)).isEqualTo(2)
+    }
+
+    @Test
+    fun terminalCases() {
+        assertThat(model.isTerminal(1)).isFalse()
+        assertThat(model.isTerminal(2)).isTrue()
+        assertThat(model.isTerminal(3)).isTrue()
+    }
+
+    @Test
+    fun comments() {
+        assertThat(model.getLeadingComment(1)).isNull()
+        assertThat(model.getLeadingComment(2)).contains("falls through")
+        assertThat(model.trailingComments).isEmpty()
+    }
+
+    @Test
+    fun modelsAreSharedUntilTheSwitchChanges() {
+        val models = SwitchModels()
+        assertThat(models.of(switch)).isSameAs(models.of(switch))
+        assertThat(models.of(switch.withCases(switch.cases.withStatements(switch.cases.statements.subList(0, 2)))))
+                .isNotSameAs(models.of(switch))
+    }
+}
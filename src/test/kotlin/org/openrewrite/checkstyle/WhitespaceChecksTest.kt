@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.checkstyle
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class WhitespaceChecksTest {
+    @Test
+    fun unchangedWhenNothingToStrip() {
+        val prefix = String(charArrayOf('\n', ' ', ' '))
+        assertThat(WhitespaceChecks.stripUpToLinebreak(prefix)).isSameAs(prefix)
+    }
+
+    @Test
+    fun strippedWhitespaceIsInterned() {
+        val s1 = WhitespaceChecks.stripUpToLinebreak(" \t\n    ")
+        val s2 = WhitespaceChecks.stripUpToLinebreak("  \n    ")
+
+        assertThat(s1).isEqualTo("\n    ")
+        assertThat(s1).isSameAs(s2)
+        assertThat(WhitespaceChecks.stripUpToLinebreak("  ")).isSameAs("")
+    }
+
+    @Test
+    fun onlyWhitespaceIsInterned() {
+        val notWhitespace = String(charArrayOf(' ', 'a'))
+        assertThat(WhitespaceChecks.intern(notWhitespace)).isSameAs(notWhitespace)
+    }
+
+    @Test
+    fun linebreakAndIndent() {
+        assertThat(WhitespaceChecks.linebreakAndIndent(4)).isEqualTo("\n    ")
+        assertThat(WhitespaceChecks.linebreakAndIndent(4)).isSameAs(WhitespaceChecks.linebreakAndIndent(4))
+        assertThat(WhitespaceChecks.linebreakAndIndent(200)).isEqualTo("\n" + " ".repeat(200))
+    }
+}